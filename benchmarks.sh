@@ -0,0 +1,19 @@
+#!/bin/bash
+# Compile the sources together with the JMH benchmarks and run them via maaartin.pazl.JmhBenchmarks,
+# passing all arguments to it, e.g., "./benchmarks.sh Solver -wi 1 -i 3".
+# The vector folder needs the incubating Vector API, which gets added as a module.
+#
+# The directory given by LIB (defaulting to lib) must contain the jars of guava, lombok, dout,
+# jmh-core, jmh-generator-annprocess and their dependencies jopt-simple and commons-math3.
+# The classes get compiled to the directory given by OUT (defaulting to out).
+set -e
+cd "$(dirname "$0")"
+LIB=${LIB:-lib}
+OUT=${OUT:-out}
+CP=$(ls "$LIB"/*.jar | tr '\n' ':')
+rm -rf "$OUT"
+mkdir -p "$OUT"
+# All jars serve as the processor path, so that both Lombok and the JMH generator run.
+javac -encoding UTF-8 --add-modules jdk.incubator.vector -cp "$CP" -processorpath "$CP" -d "$OUT" \
+	$(find src jmh vector -name '*.java' ! -name '*Test.java')
+java --add-modules jdk.incubator.vector -cp "$OUT:$CP" maaartin.pazl.JmhBenchmarks "$@"
@@ -0,0 +1,83 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare {@link BidirectionalSolver} and the unidirectional {@link Solver} on the same instances,
+ * using {@link FifteenHeuristicKind#LINEAR_CONFLICT} in both directions.
+ * The secondary results count the expanded nodes and the solves per iteration,
+ * their ratio is the expansions per solve.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2) @Measurement(iterations=5, time=2) @Fork(1)
+@State(Scope.Benchmark) public class BidirectionalSolverJmhBenchmark {
+	/** Counts the expanded nodes and the solves. */
+	@AuxCounters(AuxCounters.Type.EVENTS) @State(Scope.Thread) public static class Expansions {
+		@Setup(Level.Iteration) public void setUp() {
+			expansions = 0;
+			solves = 0;
+		}
+
+		void add(long count) {
+			expansions += count;
+			++solves;
+		}
+
+		public long expansions;
+		public long solves;
+	}
+
+	/** A reporter remembering the number of steps of the finished search. */
+	private static class DoneReporter extends Reporter {
+		@Override public void report(EventType type, long step, Node<?> node) {
+			if (type == EventType.DONE) steps = step;
+		}
+
+		long steps;
+	}
+
+	@Setup public void setUp() {
+		board = FifteenBoard.from(boardString);
+		forwardHeuristic = FifteenHeuristicKind.LINEAR_CONFLICT.create(GOAL);
+		backwardHeuristic = FifteenHeuristicKind.LINEAR_CONFLICT.create(board);
+	}
+
+	@Benchmark public int unidirectional(Expansions expansions) {
+		final DoneReporter reporter = new DoneReporter();
+		final int result = Solver.create(board, GOAL, forwardHeuristic, reporter).solve();
+		expansions.add(reporter.steps);
+		return result;
+	}
+
+	@Benchmark public int bidirectional(Expansions expansions) {
+		final BidirectionalSolver<FifteenBoard> solver =
+				BidirectionalSolver.create(board, GOAL, forwardHeuristic, backwardHeuristic, Reporter.quiet());
+		final int result = solver.solve();
+		expansions.add(solver.expansions());
+		return result;
+	}
+
+	/** Instances needing 22, 34 and 42 moves. */
+	@Param({"5134_2A86_D90B_EFC7", "0428_1637_D9EC_5FAB", "287B_504F_D9E3_1A6C"})
+	public String boardString;
+
+	private FifteenBoard board;
+	private FifteenHeuristic forwardHeuristic;
+	private FifteenHeuristic backwardHeuristic;
+}
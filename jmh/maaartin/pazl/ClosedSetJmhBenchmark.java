@@ -0,0 +1,57 @@
+package maaartin.pazl;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filling {@link HashClosedSet} and {@link LongClosedSet} with {@value #SIZE} random boards, the time is per insert.
+ * With {@code -prof gc}, the normalized allocation divided by {@value #SIZE} approximates the bytes per state,
+ * including the garbage left by the resizing.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=2) @Measurement(iterations=5, time=2) @Fork(1)
+@State(Scope.Benchmark) public class ClosedSetJmhBenchmark {
+	@Setup public void setUp() {
+		final Random random = new Random(0);
+		final int[] shuffledPieces = new int[16];
+		for (int i=shuffledPieces.length; i-->0; ) shuffledPieces[i] = i;
+		for (int n=0; n<codes.length; ++n) {
+			for (int i=shuffledPieces.length; i-->0; ) {
+				final int index = random.nextInt(i + 1);
+				final int tmp = shuffledPieces[index];
+				shuffledPieces[index] = shuffledPieces[i];
+				shuffledPieces[i] = tmp;
+			}
+			long code = 0;
+			for (final int p : shuffledPieces) code = (code<<4) + p;
+			codes[n] = code;
+		}
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) public int offer() {
+		final ClosedSet<FifteenBoard> closedSet = implementation.equals("hash") ? new HashClosedSet<FifteenBoard>()
+				: new LongClosedSet<FifteenBoard>();
+		for (int i=0; i<codes.length; ++i) closedSet.offer(FifteenBoard.from(codes[i]), i & 63);
+		return closedSet.size();
+	}
+
+	private static final int SIZE = 1_000_000;
+
+	@Param({"hash", "long"})
+	public String implementation;
+
+	private final long[] codes = new long[SIZE];
+}
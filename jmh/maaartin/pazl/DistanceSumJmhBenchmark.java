@@ -0,0 +1,114 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Verify.verify;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The distance kernels from {@link FunnySumBenchmark} and {@link FifteenBoard#manhattanDistance(long, long)}.
+ * Every invocation sums the results for {@value #SIZE} pairs of random longs, the time is per pair.
+ *
+ * <p>The batch benchmarks evaluate the distances of {@value #SIZE} boards to a single goal via
+ * {@link BatchDistance}, to be compared with {@link #manhattanDistanceToGoal()}. The vector implementation gets used
+ * only when the classes from the {@code vector} folder are on the classpath, otherwise it's the scalar one again.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5, time=1) @Measurement(iterations=5, time=1) @Fork(1)
+@State(Scope.Benchmark) public class DistanceSumJmhBenchmark {
+	@Setup public void setUp() {
+		final Random random = new Random(0);
+		for (int i=0; i<SIZE; ++i) {
+			xs[i] = random.nextLong();
+			ys[i] = random.nextLong();
+			// The manhattan distance needs valid boards.
+			pieceToIndexes1[i] = FifteenBoard.from(shuffledBoard(random)).pieceToIndex;
+			pieceToIndexes2[i] = FifteenBoard.from(shuffledBoard(random)).pieceToIndex;
+		}
+		goal = FifteenBoard.from(shuffledBoard(random)).pieceToIndex;
+		verify(shiftySum() == funnySum());
+		verify(maaartySum() == funnySum());
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) public int funnySum() {
+		int result = 0;
+		for (int i=0; i<SIZE; ++i) result += sums.funnySum(xs[i], ys[i]);
+		return result;
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) public int freakySum() {
+		int result = 0;
+		for (int i=0; i<SIZE; ++i) result += sums.freakySum(xs[i], ys[i]);
+		return result;
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) public int shiftySum() {
+		int result = 0;
+		for (int i=0; i<SIZE; ++i) result += sums.shiftySum(xs[i], ys[i]);
+		return result;
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) public int maaartySum() {
+		int result = 0;
+		for (int i=0; i<SIZE; ++i) result += sums.maaartySum(xs[i], ys[i]);
+		return result;
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) public int manhattanDistance() {
+		int result = 0;
+		for (int i=0; i<SIZE; ++i) result += FifteenBoard.manhattanDistance(pieceToIndexes1[i], pieceToIndexes2[i]);
+		return result;
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) public int[] manhattanDistanceToGoal() {
+		for (int i=0; i<SIZE; ++i) distances[i] = FifteenBoard.manhattanDistance(pieceToIndexes1[i], goal);
+		return distances;
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) public int[] scalarBatch() {
+		BatchDistance.scalar().manhattanDistances(goal, pieceToIndexes1, distances, SIZE);
+		return distances;
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) @Fork(value=1, jvmArgsAppend="--add-modules=jdk.incubator.vector")
+	public int[] vectorBatch() {
+		BatchDistance.create().manhattanDistances(goal, pieceToIndexes1, distances, SIZE);
+		return distances;
+	}
+
+	private static long shuffledBoard(Random random) {
+		final int[] pieces = new int[16];
+		for (int i=0; i<16; ++i) pieces[i] = i;
+		long result = 0;
+		for (int i=16; i-->0; ) {
+			final int j = random.nextInt(i+1);
+			final int tmp = pieces[i];
+			pieces[i] = pieces[j];
+			pieces[j] = tmp;
+			result = (result << 4) + pieces[i];
+		}
+		return result;
+	}
+
+	private static final int SIZE = 1024;
+
+	private final FunnySumBenchmark sums = new FunnySumBenchmark();
+	private final long[] xs = new long[SIZE];
+	private final long[] ys = new long[SIZE];
+	private final long[] pieceToIndexes1 = new long[SIZE];
+	private final long[] pieceToIndexes2 = new long[SIZE];
+	private long goal;
+	private final int[] distances = new int[SIZE];
+}
@@ -0,0 +1,46 @@
+package maaartin.pazl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The lookups of {@link EightDistanceTable} compared with solving the same {@link EightBoard} by the {@link Solver}.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5, time=1) @Measurement(iterations=5, time=1) @Fork(1)
+@State(Scope.Benchmark) public class EightBoardJmhBenchmark {
+	@Setup public void setUp() {
+		board = EightBoard.from(boardString);
+		table = EightDistanceTable.standard();
+	}
+
+	@Benchmark public int tableDistance() {
+		return table.distance(board);
+	}
+
+	@Benchmark public EightBoard tableNext() {
+		return table.next(board);
+	}
+
+	@Benchmark public int solve() {
+		return Solver.create(board, EightDistanceTable.STANDARD_GOAL, Reporter.quiet()).solve();
+	}
+
+	/** Instances needing 8, 21 and 31 moves, the middle one reaching the alternative of the goal. */
+	@Param({"413_726_580", "746_021_538", "867_254_301"})
+	public String boardString;
+
+	private EightBoard board;
+	private EightDistanceTable table;
+}
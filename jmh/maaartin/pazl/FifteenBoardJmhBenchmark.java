@@ -0,0 +1,86 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/** The basic operations of {@link FifteenBoard}, which are the hot paths of the {@link Solver}. */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5, time=1) @Measurement(iterations=5, time=1) @Fork(1)
+@State(Scope.Benchmark) public class FifteenBoardJmhBenchmark {
+	@Setup public void setUp() {
+		board = FifteenBoard.from(boardString);
+		copy = FifteenBoard.from(board.toLong());
+		emptyIndex = board.pieceToIndex(0);
+		neighborIndex = FifteenBoard.NEIGHBORS[emptyIndex][0];
+		final Random random = new Random(0);
+		FifteenBoard b = board;
+		while (set.size() < SET_SIZE) {
+			set.add(b);
+			b = Lists.newArrayList(b.children()).get(random.nextInt(b.children().size()));
+		}
+	}
+
+	@Benchmark public int distanceTo() {
+		return board.distanceTo(GOAL);
+	}
+
+	@Benchmark public Collection<FifteenBoard> children() {
+		return board.children();
+	}
+
+	@Benchmark public int childCodes() {
+		return board.childCodes(childCodes);
+	}
+
+	@Benchmark public FifteenBoard swap() {
+		return board.swap(emptyIndex, neighborIndex);
+	}
+
+	@Benchmark public long dual() {
+		return FifteenBoard.dual(board.indexToPiece);
+	}
+
+	@Benchmark public int hashCodeBenchmark() {
+		return board.hashCode();
+	}
+
+	@Benchmark public boolean equalsBenchmark() {
+		return board.equals(copy);
+	}
+
+	/** Look up an equal but not identical board in a {@code HashSet}, which needs both hashCode and equals. */
+	@Benchmark public boolean hashSetContains() {
+		return set.contains(copy);
+	}
+
+	private static final int SET_SIZE = 1 << 16;
+
+	@Param({"1234_5678_9ABC_DEF0", "287B_504F_D9E3_1A6C", "CB9E_82A0_F147_563D", "0123_4567_89AB_CDEF"})
+	public String boardString;
+
+	private FifteenBoard board;
+	private FifteenBoard copy;
+	private int emptyIndex;
+	private int neighborIndex;
+	private final long[] childCodes = new long[Board.MAX_CHILDREN];
+	private final Set<FifteenBoard> set = Sets.newHashSet();
+}
@@ -0,0 +1,68 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare {@link FifteenParallelIdaSolver} using a varying number of threads against the sequential
+ * {@link FifteenIdaSolver}, using {@link FifteenHeuristicKind#LINEAR_CONFLICT}.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2) @Measurement(iterations=5, time=2) @Fork(1)
+@State(Scope.Benchmark) public class FifteenParallelIdaSolverJmhBenchmark {
+	/** The pool used by {@link FifteenParallelIdaSolverJmhBenchmark#parallel(Pool)}. */
+	@State(Scope.Benchmark) public static class Pool {
+		@Setup public void setUp() {
+			pool = new ForkJoinPool(threads);
+		}
+
+		@TearDown public void tearDown() {
+			pool.shutdown();
+		}
+
+		@Param({"1", "2", "4", "8"})
+		public int threads;
+
+		@Param({"8"})
+		public int splitDepth;
+
+		private ForkJoinPool pool;
+	}
+
+	@Setup public void setUp() {
+		board = FifteenBoard.from(boardString);
+		heuristic = FifteenHeuristicKind.LINEAR_CONFLICT.create(GOAL);
+	}
+
+	@Benchmark public int sequential() {
+		return FifteenIdaSolver.create(board, heuristic, Reporter.quiet()).solve();
+	}
+
+	@Benchmark public int parallel(Pool pool) {
+		final FifteenParallelIdaSolver solver =
+				FifteenParallelIdaSolver.create(board, heuristic, pool.splitDepth, pool.pool, Reporter.quiet());
+		return solver.solve();
+	}
+
+	/** Instances needing 34 and 42 moves. */
+	@Param({"0428_1637_D9EC_5FAB", "287B_504F_D9E3_1A6C"})
+	public String boardString;
+
+	private FifteenBoard board;
+	private FifteenHeuristic heuristic;
+}
@@ -0,0 +1,52 @@
+package maaartin.pazl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** The ranking and unranking of {@link FifteenRanking}. */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5, time=1) @Measurement(iterations=5, time=1) @Fork(1)
+@State(Scope.Benchmark) public class FifteenRankingJmhBenchmark {
+	@Setup public void setUp() {
+		board = FifteenBoard.from(BOARD_STRING);
+		rank = FifteenRanking.rank(board.indexToPiece);
+		myrvoldRuskeyRank = FifteenRanking.myrvoldRuskeyRank(board.indexToPiece, board.pieceToIndex);
+	}
+
+	@Benchmark public long rank() {
+		return FifteenRanking.rank(board.indexToPiece);
+	}
+
+	@Benchmark public long unrank() {
+		return FifteenRanking.unrank(rank);
+	}
+
+	@Benchmark public long myrvoldRuskeyRank() {
+		return FifteenRanking.myrvoldRuskeyRank(board.indexToPiece, board.pieceToIndex);
+	}
+
+	@Benchmark public long myrvoldRuskeyUnrank() {
+		return FifteenRanking.myrvoldRuskeyUnrank(myrvoldRuskeyRank);
+	}
+
+	@Benchmark public int partialRank() {
+		return FifteenRanking.partialRank(board.pieceToIndex, PIECES);
+	}
+
+	private static final String BOARD_STRING = "0428_1637_D9EC_5FAB";
+	private static final int[] PIECES = {1, 2, 3, 4, 5, 6, 7};
+
+	private FifteenBoard board;
+	private long rank;
+	private long myrvoldRuskeyRank;
+}
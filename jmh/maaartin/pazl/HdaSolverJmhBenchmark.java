@@ -0,0 +1,43 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The scaling of {@link HdaSolver} with the number of threads, using {@link FifteenHeuristicKind#LINEAR_CONFLICT}.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2) @Measurement(iterations=5, time=2) @Fork(1)
+@State(Scope.Benchmark) public class HdaSolverJmhBenchmark {
+	@Setup public void setUp() {
+		board = FifteenBoard.from(boardString);
+		heuristic = FifteenHeuristicKind.LINEAR_CONFLICT.create(GOAL);
+	}
+
+	@Benchmark public int solve() throws InterruptedException {
+		return HdaSolver.create(board, GOAL, heuristic, threads, Reporter.quiet()).solve();
+	}
+
+	/** Instances needing 34 and 42 moves. */
+	@Param({"0428_1637_D9EC_5FAB", "287B_504F_D9E3_1A6C"})
+	public String boardString;
+
+	@Param({"1", "2", "4", "8"})
+	public int threads;
+
+	private FifteenBoard board;
+	private FifteenHeuristic heuristic;
+}
@@ -0,0 +1,67 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the heuristics by the time per evaluation and by the time {@link FifteenIdaSolver} needs using them.
+ * Without {@code -p kind=...}, all {@link FifteenHeuristicKind}s but the slow symmetric ones get compared.
+ * The pattern databases get stored in the directory given by {@link FifteenHeuristicKind#PDB_DIRECTORY_PROPERTY}.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=2) @Measurement(iterations=5, time=2) @Fork(1)
+@State(Scope.Benchmark) public class HeuristicJmhBenchmark {
+	/** The instance solved by {@link HeuristicJmhBenchmark#solve(Instance)}. */
+	@State(Scope.Benchmark) public static class Instance {
+		@Setup public void setUp() {
+			board = FifteenBoard.from(boardString);
+		}
+
+		/** Instances needing 34 and 42 moves. */
+		@Param({"0428_1637_D9EC_5FAB", "287B_504F_D9E3_1A6C"})
+		public String boardString;
+
+		private FifteenBoard board;
+	}
+
+	@Setup public void setUp() {
+		heuristic = FifteenHeuristicKind.valueOf(kind).create(GOAL);
+		final Random random = new Random(0);
+		for (int i=0; i<boards.length; ++i) boards[i] = randomWalk(random, 100);
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) public int distance() {
+		int result = 0;
+		for (final FifteenBoard board : boards) result += heuristic.distance(board.indexToPiece, board.pieceToIndex);
+		return result;
+	}
+
+	@Benchmark @OutputTimeUnit(TimeUnit.MILLISECONDS) public int solve(Instance instance) {
+		return FifteenIdaSolver.create(instance.board, heuristic, Reporter.quiet()).solve();
+	}
+
+	private static final int SIZE = 1 << 16;
+
+	@Param({"MANHATTAN", "LINEAR_CONFLICT", "WALKING_DISTANCE",
+		"PDB_555", "PDB_663", "PDB_555_REFLECTED", "PDB_663_REFLECTED"})
+	public String kind;
+
+	private FifteenHeuristic heuristic;
+	private final FifteenBoard[] boards = new FifteenBoard[SIZE];
+}
@@ -0,0 +1,79 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Compare the full and the incremental evaluation of heuristics on children as used by the engines working on longs,
+ * i.e., {@link FifteenHeuristic#distance(long, long)} and
+ * {@link FifteenHeuristic#childDistance(int, int, int, int, long, long)}, the time is per child.
+ * The pattern databases get stored in the directory given by {@link FifteenHeuristicKind#PDB_DIRECTORY_PROPERTY}.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=2) @Measurement(iterations=5, time=2) @Fork(1)
+@State(Scope.Benchmark) public class IncrementalHeuristicJmhBenchmark {
+	@Setup public void setUp() {
+		heuristic = FifteenHeuristicKind.valueOf(kind).create(GOAL);
+		final Random random = new Random(0);
+		FifteenBoard board = GOAL;
+		for (int i=0; i<parents.length; ++i) {
+			final List<FifteenBoard> children = Lists.newArrayList(board.children());
+			parents[i] = board;
+			board = children.get(random.nextInt(children.size()));
+			this.children[i] = board;
+			froms[i] = board.pieceToIndex(0);
+			tos[i] = parents[i].pieceToIndex(0);
+			pieces[i] = parents[i].indexToPiece(froms[i]);
+			parentDistances[i] = heuristic.distance(parents[i]);
+		}
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) public int full() {
+		int result = 0;
+		for (int i=0; i<children.length; ++i) {
+			result += heuristic.distance(children[i].indexToPiece, children[i].pieceToIndex);
+		}
+		return result;
+	}
+
+	@Benchmark @OperationsPerInvocation(SIZE) public int incremental() {
+		int result = 0;
+		for (int i=0; i<children.length; ++i) {
+			final FifteenBoard child = children[i];
+			result += heuristic.childDistance(parentDistances[i], pieces[i], froms[i], tos[i],
+					child.indexToPiece, child.pieceToIndex);
+		}
+		return result;
+	}
+
+	private static final int SIZE = 1_000_000;
+
+	@Param({"MANHATTAN", "PDB_663"})
+	public String kind;
+
+	private FifteenHeuristic heuristic;
+	private final FifteenBoard[] parents = new FifteenBoard[SIZE];
+	private final FifteenBoard[] children = new FifteenBoard[SIZE];
+	private final int[] parentDistances = new int[SIZE];
+	private final int[] pieces = new int[SIZE];
+	private final int[] froms = new int[SIZE];
+	private final int[] tos = new int[SIZE];
+}
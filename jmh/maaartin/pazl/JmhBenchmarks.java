@@ -0,0 +1,34 @@
+package maaartin.pazl;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run all JMH benchmarks with the allocation profiler ({@code -prof gc}) and write the results to
+ * {@value #RESULT_FILE}, so that they can be compared between commits.
+ * Any JMH command line options can be given, e.g., a regex selecting the benchmarks.
+ *
+ * <p>The sources in this folder need {@code jmh-core} on the classpath and {@code jmh-generator-annprocess}
+ * as annotation processor, which is why they're separated from {@code src}.
+ */
+public class JmhBenchmarks {
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		final OptionsBuilder options = new OptionsBuilder();
+		options.parent(commandLineOptions);
+		if (commandLineOptions.getIncludes().isEmpty()) {
+			options.include(JmhBenchmarks.class.getPackage().getName() + "\\..*JmhBenchmark");
+		}
+		options.addProfiler(GCProfiler.class);
+		options.resultFormat(ResultFormatType.JSON);
+		options.result(RESULT_FILE);
+		new Runner(options.build()).run();
+	}
+
+	private static final String RESULT_FILE = "jmh-result.json";
+}
@@ -0,0 +1,65 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * {@link HeapOpenList} and {@link BucketOpenList} on an A*-like workload of {@value #SIZE} nodes,
+ * the time is per operation, i.e., per add or poll.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=2) @Measurement(iterations=5, time=2) @Fork(1)
+@State(Scope.Benchmark) public class OpenListJmhBenchmark {
+	@Setup public void setUp() {
+		final Random random = new Random(0);
+		FifteenBoard board = GOAL;
+		for (int i=0; i<boards.length; ++i) {
+			final List<FifteenBoard> children = Lists.newArrayList(board.children());
+			board = children.get(random.nextInt(children.size()));
+			boards[i] = board;
+			// The total cost stays close to the minimum, with the past cost slowly growing.
+			pastCosts[i] = (int) Math.min(60, 60L * i / SIZE + random.nextInt(3));
+			futureCosts[i] = 40 - pastCosts[i] / 2 + 2 * random.nextInt(3);
+		}
+	}
+
+	/** Alternate between adding three nodes and polling two, then drain the list. */
+	@Benchmark @OperationsPerInvocation(2 * SIZE) public long addAndPoll() {
+		final OpenList<FifteenBoard> openList = implementation.equals("heap") ? new HeapOpenList<FifteenBoard>()
+				: new BucketOpenList<FifteenBoard>(GOAL);
+		long result = 0;
+		for (int i=0; i<boards.length; ++i) {
+			openList.add(new Node<FifteenBoard>(boards[i], pastCosts[i], futureCosts[i]));
+			if (i%3 != 0) result += openList.poll().pastCost();
+		}
+		for (Node<FifteenBoard> node; (node = openList.poll()) != null; ) result += node.pastCost();
+		return result;
+	}
+
+	private static final int SIZE = 1_000_000;
+
+	@Param({"heap", "bucket"})
+	public String implementation;
+
+	private final FifteenBoard[] boards = new FifteenBoard[SIZE];
+	private final int[] pastCosts = new int[SIZE];
+	private final int[] futureCosts = new int[SIZE];
+}
@@ -0,0 +1,73 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Taking, writing and reading a {@link SearchCheckpoint} of the state left by {@link Solver#solve()}.
+ * The throughput follows from the sizes printed by the setup.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2) @Measurement(iterations=5, time=2) @Fork(1)
+@State(Scope.Benchmark) public class SearchCheckpointJmhBenchmark {
+	@Setup public void setUp() throws IOException {
+		final FifteenBoard board = FifteenBoard.from(boardString);
+		final Heuristic<FifteenBoard> heuristic = GOAL.distanceHeuristic();
+		final LongClosedSet<FifteenBoard> closedSet = new LongClosedSet<FifteenBoard>();
+		final BucketOpenList<FifteenBoard> openList = new BucketOpenList<FifteenBoard>(board);
+		final Solver<FifteenBoard> solver =
+				Solver.create(board, GOAL, heuristic, Reporter.quiet(), closedSet, openList);
+		solver.solve();
+		closed = closedSet.map();
+		open = openList.queue();
+		directory = Files.createTempDirectory("checkpoint-");
+		path = directory.resolve("search.bin");
+		snapshot().write(path);
+		System.out.format("%n%d closed and %d open entries, %d bytes%n",
+				closed.size(), open.size(), Files.size(path));
+	}
+
+	@TearDown public void tearDown() throws IOException {
+		Files.deleteIfExists(path);
+		Files.delete(directory);
+	}
+
+	/** The part of the checkpointing blocking the search. */
+	@Benchmark public SearchCheckpoint snapshot() {
+		return SearchCheckpoint.snapshot(1, 2, 3, closed, open);
+	}
+
+	@Benchmark public void write() throws IOException {
+		snapshot().write(path);
+	}
+
+	@Benchmark public SearchCheckpoint read() throws IOException {
+		return SearchCheckpoint.read(path);
+	}
+
+	/** Instances needing 42 and 48 moves. */
+	@Param({"287B_504F_D9E3_1A6C", "A3D7_1B48_09FC_E652"})
+	public String boardString;
+
+	private LongCostMap closed;
+	private LongBucketQueue open;
+	private Path directory;
+	private Path path;
+}
@@ -0,0 +1,50 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A complete run of {@link Solver#solve()} with the default heuristic on fixed instances,
+ * compared to {@link FrontierSolver} without and with reconstructing the path.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2) @Measurement(iterations=5, time=2) @Fork(1)
+@State(Scope.Benchmark) public class SolverJmhBenchmark {
+	@Setup public void setUp() {
+		board = FifteenBoard.from(boardString);
+	}
+
+	@Benchmark public int solve() {
+		return Solver.create(board, GOAL, Reporter.quiet()).solve();
+	}
+
+	@Benchmark public int frontierSolve() {
+		return FrontierSolver.create(board, GOAL, GOAL.distanceHeuristic(), Reporter.quiet()).solve();
+	}
+
+	@Benchmark public int frontierPath() {
+		final FrontierSolver<FifteenBoard> solver =
+				FrontierSolver.create(board, GOAL, GOAL.distanceHeuristic(), Reporter.quiet());
+		solver.solve();
+		return solver.path().size();
+	}
+
+	/** Instances needing 22, 34 and 42 moves. */
+	@Param({"5134_2A86_D90B_EFC7", "0428_1637_D9EC_5FAB", "287B_504F_D9E3_1A6C"})
+	public String boardString;
+
+	private FifteenBoard board;
+}
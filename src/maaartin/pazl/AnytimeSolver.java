@@ -0,0 +1,244 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Anytime repairing A* (ARA* by Likhachev et al.), quickly finding a solution and improving it as long as time
+ * permits.
+ *
+ * <p>Every iteration is a weighted A* ordering the nodes by {@code pastCost + weight * futureCost} and stopping as
+ * soon as no node has a lower priority than the best solution found. The weight decreases from iteration to
+ * iteration until it reaches 1, which makes the last solution optimal. The search effort gets reused: The past costs
+ * persist in a {@link ClosedSet} and a board gets expanded at most once per iteration. When a board already expanded
+ * in the current iteration gets a lower past cost, it gets put aside and reinserted at the start of the next
+ * iteration.
+ *
+ * <p>Every shorter solution gets reported as {@link EventType#UPPER_BOUND}. After every iteration, the minimum
+ * of {@code pastCost + futureCost} over the remaining nodes is a lower bound on the solution length,
+ * which gets reported as {@link EventType#LOWER_BOUND} whenever it rises.
+ */
+final class AnytimeSolver<B extends Board<B>> {
+	private AnytimeSolver(B startBoard, B endBoard, Heuristic<B> heuristic, double initialWeight, double weightStep,
+			Reporter reporter) {
+		checkArgument(initialWeight >= 1);
+		checkArgument(weightStep > 0);
+		this.startBoard = startBoard;
+		this.endBoard = endBoard;
+		this.alternativeEndBoard = endBoard.alternative();
+		this.heuristic = heuristic;
+		this.initialWeight = initialWeight;
+		this.weightStep = weightStep;
+		this.reporter = reporter;
+		closedSet = Solver.newClosedSet(startBoard);
+		expanded = Solver.newClosedSet(startBoard);
+	}
+
+	/**
+	 * Create a solver using the default weights and the given heuristic, which must be consistent for
+	 * {@code endBoard}.
+	 */
+	public static <B extends Board<B>> AnytimeSolver<B> create(B startBoard, B endBoard, Heuristic<B> heuristic,
+			Reporter reporter) {
+		return create(startBoard, endBoard, heuristic, INITIAL_WEIGHT, WEIGHT_STEP, reporter);
+	}
+
+	/**
+	 * Create a solver using the given heuristic, which must be consistent for {@code endBoard}.
+	 *
+	 * @param initialWeight the weight of the heuristic in the first iteration, at least 1
+	 * @param weightStep the amount the weight gets decreased by after every iteration
+	 */
+	public static <B extends Board<B>> AnytimeSolver<B> create(B startBoard, B endBoard, Heuristic<B> heuristic,
+			double initialWeight, double weightStep, Reporter reporter) {
+		return new AnytimeSolver<B>(startBoard, endBoard, heuristic, initialWeight, weightStep, reporter);
+	}
+
+	/** Return the length of an optimal solution or -1 if there's none. */
+	int solve() {
+		return solve(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Search until the solution is proven optimal or the timeout expires,
+	 * and return the length of the best solution found or -1 if none was found.
+	 * Use {@link #isOptimal()} and {@link #lowerBound()} for the quality of the result.
+	 */
+	int solve(long timeout, TimeUnit unit) {
+		final long start = System.nanoTime();
+		final long timeoutNanos = unit.toNanos(timeout);
+		final int startFutureCost = heuristic.distance(startBoard);
+		reporter.metrics().start(startFutureCost);
+		closedSet.offer(startBoard, 0);
+		if (startBoard.equals(endBoard) || startBoard.equals(alternativeEndBoard)) {
+			solution = startBoard;
+			bestLength = 0;
+		}
+		final List<Node<B>> nodes = Lists.newArrayList();
+		nodes.add(new Node<B>(startBoard, 0, startFutureCost));
+		raiseLowerBound(startFutureCost);
+		for (double weight=initialWeight; ; weight=Math.max(1, weight-weightStep)) {
+			final PriorityQueue<Node<B>> queue = newQueue(weight, nodes);
+			nodes.clear();
+			expanded.clear();
+			if (!improve(weight, queue, nodes, start, timeoutNanos)) return bestLength;
+			nodes.addAll(queue);
+			final int minTotalCost = minTotalCost(nodes);
+			if (minTotalCost == Integer.MAX_VALUE) return -1;
+			raiseLowerBound(minTotalCost);
+			if (isOptimal()) {
+				reporter.metrics().solved(bestLength);
+				reporter.report(EventType.DONE, expansions, new Node<B>(solution, bestLength, 0));
+				return bestLength;
+			}
+		}
+	}
+
+	/**
+	 * Return the boards of the best solution found, starting with {@code startBoard}.
+	 * The path may be shorter than {@link #bestLength()} when the past costs improved since the solution was found.
+	 */
+	List<B> path() {
+		checkState(solution != null, "No solution found");
+		return Solver.path(solution, closedSet);
+	}
+
+	/** Return the length of the best solution found so far or -1. */
+	int bestLength() {
+		return bestLength;
+	}
+
+	/** Return the highest proven lower bound on the solution length. */
+	int lowerBound() {
+		return lowerBound;
+	}
+
+	/** Return true if the best solution found is proven optimal. */
+	boolean isOptimal() {
+		return solution != null && lowerBound >= bestLength;
+	}
+
+	/** Return the number of expanded nodes summed over all iterations. */
+	long expansions() {
+		return expansions;
+	}
+
+	/**
+	 * Run a weighted A* with the given queue until no node can lead to a better solution.
+	 * Put the boards improved after having been expanded into {@code inconsistent}.
+	 * Return false if the time is over.
+	 */
+	private boolean improve(double weight, PriorityQueue<Node<B>> queue, List<Node<B>> inconsistent,
+			long start, long timeoutNanos) {
+		final SearchMetrics metrics = reporter.metrics();
+		while (!queue.isEmpty() && priority(weight, queue.peek()) < upperBound()) {
+			final Node<B> node = queue.poll();
+			// Skip the node when it has been reopened with a lower past cost or already expanded in this iteration.
+			if (node.pastCost() > closedSet.pastCost(node.board()) || !expanded.offer(node.board(), 0)) {
+				metrics.skippedStale();
+				continue;
+			}
+			if ((++expansions & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - start >= timeoutNanos) return false;
+			metrics.expanded(node.pastCost(), node.futureCost());
+			metrics.sizes(queue.size(), closedSet.size());
+			reporter.report(EventType.NOTHING, expansions, node);
+			final int childPastCost = node.pastCost() + 1;
+			int generated = 0;
+			for (final B b : node.board().children()) {
+				if (!closedSet.offer(b, childPastCost)) continue;
+				final int childFutureCost = heuristic.childDistance(node.board(), node.futureCost(), b);
+				final Node<B> child = new Node<B>(b, childPastCost, childFutureCost);
+				if (b.equals(endBoard) || b.equals(alternativeEndBoard)) {
+					solution = b;
+					bestLength = childPastCost;
+					reporter.report(EventType.UPPER_BOUND, expansions, child);
+				}
+				if (childPastCost + childFutureCost >= upperBound()) continue;
+				if (expanded.pastCost(b) == -1) {
+					queue.add(child);
+				} else {
+					inconsistent.add(child);
+				}
+				++generated;
+			}
+			metrics.generated(generated);
+		}
+		return true;
+	}
+
+	/**
+	 * Return a queue ordered by the weighted priority containing all nodes, which may still lead to a better
+	 * solution.
+	 */
+	private PriorityQueue<Node<B>> newQueue(final double weight, List<Node<B>> nodes) {
+		final Comparator<Node<B>> comparator = new Comparator<Node<B>>() {
+			@Override public int compare(Node<B> o1, Node<B> o2) {
+				final int diff = Double.compare(priority(weight, o1), priority(weight, o2));
+				// Prefer the deeper node, as it's probably closer to a solution.
+				return diff != 0 ? diff : o2.pastCost() - o1.pastCost();
+			}
+		};
+		final PriorityQueue<Node<B>> result = new PriorityQueue<Node<B>>(Math.max(1, nodes.size()), comparator);
+		for (final Node<B> node : nodes) {
+			if (node.pastCost() > closedSet.pastCost(node.board())) continue;
+			if (node.pastCost() + node.futureCost() >= upperBound()) continue;
+			result.add(node);
+		}
+		return result;
+	}
+
+	private static double priority(double weight, Node<?> node) {
+		return node.pastCost() + weight * node.futureCost();
+	}
+
+	/** Return the lowest total cost over all nodes, or {@link #upperBound()} if there's none below it. */
+	private int minTotalCost(List<Node<B>> nodes) {
+		int result = upperBound();
+		for (final Node<B> node : nodes) {
+			if (node.pastCost() > closedSet.pastCost(node.board())) continue;
+			result = Math.min(result, node.pastCost() + node.futureCost());
+		}
+		return result;
+	}
+
+	private void raiseLowerBound(int bound) {
+		if (bound <= lowerBound) return;
+		lowerBound = bound;
+		reporter.report(EventType.LOWER_BOUND, expansions, new Node<B>(startBoard, 0, bound));
+	}
+
+	/** Return the length of the best solution or {@link Integer#MAX_VALUE} if none was found. */
+	private int upperBound() {
+		return bestLength == -1 ? Integer.MAX_VALUE : bestLength;
+	}
+
+	private static final double INITIAL_WEIGHT = 3;
+	private static final double WEIGHT_STEP = 0.5;
+	/** Check the deadline every 1024 expansions. */
+	private static final long DEADLINE_CHECK_MASK = 1023;
+
+	private final B startBoard;
+	private final B endBoard;
+	private final B alternativeEndBoard;
+	private final Heuristic<B> heuristic;
+	private final double initialWeight;
+	private final double weightStep;
+	private final Reporter reporter;
+
+	/** The lowest known past costs, persisting over all iterations. */
+	private final ClosedSet<B> closedSet;
+	/** The boards expanded in the current iteration. */
+	private final ClosedSet<B> expanded;
+
+	private B solution;
+	private int bestLength = -1;
+	private int lowerBound = -1;
+	private long expansions;
+}
@@ -0,0 +1,75 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+
+import junit.framework.TestCase;
+
+public class AnytimeSolverTest extends TestCase {
+	private static final class RecordingReporter extends Reporter {
+		@Override public void report(EventType type, long step, Node<?> node) {
+			final int cost = node.pastCost() + node.futureCost();
+			if (type == EventType.UPPER_BOUND) upperBounds.add(cost);
+			if (type == EventType.LOWER_BOUND) lowerBounds.add(cost);
+		}
+
+		final List<Integer> upperBounds = Lists.newArrayList();
+		final List<Integer> lowerBounds = Lists.newArrayList();
+	}
+
+	public void testAgainstIda() {
+		final Random random = new Random(42);
+		for (int i=0; i<20; ++i) {
+			FifteenBoard start = randomWalk(random, 10 + 3*i);
+			if (i%4 == 0) start = start.alternative();
+			final FifteenHeuristic heuristic =
+					new ManhattanHeuristic(start.canReach(GOAL) ? GOAL : GOAL.alternative());
+			final int expected = FifteenIdaSolver.create(start, GOAL, Reporter.quiet()).solve();
+			final RecordingReporter reporter = new RecordingReporter();
+			final AnytimeSolver<FifteenBoard> solver = AnytimeSolver.create(start, GOAL, heuristic, reporter);
+			assertEquals(expected, solver.solve());
+			assertTrue(solver.isOptimal());
+			assertEquals(expected, solver.lowerBound());
+			assertFalse(reporter.upperBounds.isEmpty());
+			assertEquals(expected, reporter.upperBounds.get(reporter.upperBounds.size() - 1).intValue());
+			assertEquals(expected, reporter.lowerBounds.get(reporter.lowerBounds.size() - 1).intValue());
+			for (int j=1; j<reporter.upperBounds.size(); ++j) {
+				assertTrue(reporter.upperBounds.get(j) < reporter.upperBounds.get(j-1));
+			}
+			for (int j=1; j<reporter.lowerBounds.size(); ++j) {
+				assertTrue(reporter.lowerBounds.get(j) > reporter.lowerBounds.get(j-1));
+			}
+			final List<FifteenBoard> path = solver.path();
+			assertEquals(expected + 1, path.size());
+			assertEquals(start, path.get(0));
+		}
+	}
+
+	public void testSolved() {
+		final AnytimeSolver<FifteenBoard> solver =
+				AnytimeSolver.create(GOAL, GOAL, new ManhattanHeuristic(GOAL), Reporter.quiet());
+		assertEquals(0, solver.solve());
+		assertTrue(solver.isOptimal());
+	}
+
+	public void testDeadline() {
+		final FifteenBoard start = FifteenBoard.from("0428_1637_D9EC_5FAB");
+		final AnytimeSolver<FifteenBoard> solver =
+				AnytimeSolver.create(start, GOAL, new ManhattanHeuristic(GOAL), 5, 0.5, Reporter.quiet());
+		final long startNanos = System.nanoTime();
+		final int length = solver.solve(10, TimeUnit.MILLISECONDS);
+		assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(1));
+		assertTrue(solver.lowerBound() <= 34);
+		if (length != -1) {
+			assertTrue(length >= 34);
+			assertEquals(length, solver.bestLength());
+			assertTrue(solver.path().size() <= length + 1);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+/**
+ * Evaluates {@link FifteenBoard#manhattanDistance(long, long)} for many boards against a single goal at once,
+ * e.g., for scoring all boards of a frontier or all children generated by {@link Board#childCodes(long[])}.
+ *
+ * <p>The {@link #scalar()} implementation simply loops over the per-board kernel. The vector implementation
+ * runs the same SWAR kernel in the lanes of a {@code jdk.incubator.vector.LongVector}, so that e.g. eight boards
+ * get evaluated per instruction with AVX-512. It lives in the {@code vector} source folder, as it needs
+ * {@code --add-modules jdk.incubator.vector} both for compiling and running. When it's missing on the classpath
+ * or the module isn't available, {@link #create()} falls back to the scalar implementation.
+ */
+abstract class BatchDistance {
+	/** Return the fastest implementation available. */
+	static BatchDistance create() {
+		return FASTEST.get();
+	}
+
+	/** Return the implementation looping over {@link FifteenBoard#manhattanDistance(long, long)}. */
+	static BatchDistance scalar() {
+		return SCALAR;
+	}
+
+	/**
+	 * For all {@code i < count}, store the manhattan distance between {@code pieceToIndexes[i]} and the goal
+	 * in {@code distances[i]}. All boards are given by their {@link FifteenBoard#pieceToIndex} fields.
+	 */
+	final void manhattanDistances(long goalPieceToIndex, long[] pieceToIndexes, int[] distances, int count) {
+		checkArgument(0 <= count && count <= pieceToIndexes.length && count <= distances.length);
+		manhattanDistancesUnchecked(goalPieceToIndex, pieceToIndexes, distances, count);
+	}
+
+	abstract void manhattanDistancesUnchecked(long goalPieceToIndex, long[] pieceToIndexes, int[] distances,
+			int count);
+
+	private static final class Scalar extends BatchDistance {
+		@Override void manhattanDistancesUnchecked(long goalPieceToIndex, long[] pieceToIndexes, int[] distances,
+				int count) {
+			for (int i=0; i<count; ++i) {
+				distances[i] = FifteenBoard.manhattanDistance(pieceToIndexes[i], goalPieceToIndex);
+			}
+		}
+
+		@Override public String toString() {
+			return "scalar";
+		}
+	}
+
+	/** The fully qualified name of the vector implementation, which doesn't get referenced directly. */
+	private static final String VECTOR_CLASS_NAME = "maaartin.pazl.VectorBatchDistance";
+
+	private static final BatchDistance SCALAR = new Scalar();
+
+	private static final Supplier<BatchDistance> FASTEST = Suppliers.memoize(new Supplier<BatchDistance>() {
+		@Override public BatchDistance get() {
+			try {
+				return (BatchDistance) Class.forName(VECTOR_CLASS_NAME).getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | LinkageError e) {
+				// Either the class or the jdk.incubator.vector module is missing, or there's no usable vector shape.
+				return SCALAR;
+			}
+		}
+	});
+}
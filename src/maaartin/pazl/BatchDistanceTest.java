@@ -0,0 +1,45 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class BatchDistanceTest extends TestCase {
+	public void testScalar() {
+		check(BatchDistance.scalar());
+	}
+
+	public void testCreate() {
+		check(BatchDistance.create());
+	}
+
+	private static void check(BatchDistance batchDistance) {
+		final Random random = new Random(42);
+		final long[] pieceToIndexes = new long[100];
+		for (int i=0; i<pieceToIndexes.length; ++i) pieceToIndexes[i] = randomWalk(random, 200).pieceToIndex;
+		for (final FifteenBoard goal : new FifteenBoard[] {GOAL, randomWalk(random, 200)}) {
+			// Cover all tails up to 16 lanes.
+			for (final int count : new int[] {0, 1, 2, 3, 7, 8, 9, 15, 16, 17, 31, 33, 100}) {
+				final int[] distances = new int[pieceToIndexes.length];
+				batchDistance.manhattanDistances(goal.pieceToIndex, pieceToIndexes, distances, count);
+				for (int i=0; i<distances.length; ++i) {
+					final int expected =
+							i<count ? FifteenBoard.manhattanDistance(pieceToIndexes[i], goal.pieceToIndex) : 0;
+					assertEquals(batchDistance + " " + i, expected, distances[i]);
+				}
+			}
+		}
+	}
+
+	public void testCountChecked() {
+		try {
+			BatchDistance.create().manhattanDistances(GOAL.pieceToIndex, new long[4], new int[3], 4);
+			fail();
+		} catch (final IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+}
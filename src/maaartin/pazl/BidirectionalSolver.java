@@ -0,0 +1,157 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * Bidirectional search meeting in the middle (MM by Holte et al.) for boards supporting {@link Board#toLong()}.
+ *
+ * <p>There's a forward search from {@code startBoard} and a backward search from {@code endBoard} and its
+ * {@link Board#alternative()} (unless {@link Board#canReach(Board)} excludes them), as moves are reversible.
+ * Every direction has its own {@link LongBucketQueue} and {@link LongCostMap}.
+ * A node gets prioritized by {@code max(g+h, 2g)}, so that no direction goes beyond the middle of an optimal
+ * solution.
+ * The direction with the lower minimum priority gets expanded next.
+ * Whenever a child is known to the other direction, the sum of both past costs is an upper bound on the solution
+ * length, and the search stops as soon as no direction has a lower priority left, which guarantees optimality.
+ */
+final class BidirectionalSolver<B extends Board<B>> {
+	private BidirectionalSolver(B startBoard, B endBoard, Heuristic<B> forwardHeuristic,
+			Heuristic<B> backwardHeuristic, Reporter reporter) {
+		checkArgument(startBoard.hasLongEncoding());
+		this.startBoard = startBoard;
+		this.endBoard = endBoard;
+		forward = new Direction(forwardHeuristic);
+		backward = new Direction(backwardHeuristic);
+		this.reporter = reporter;
+	}
+
+	/** Create a solver using {@link Board#distanceTo(Board)} in both directions. */
+	public static <B extends Board<B>> BidirectionalSolver<B> create(final B startBoard, final B endBoard,
+			Reporter reporter) {
+		final B alternativeEndBoard = endBoard.alternative();
+		final Heuristic<B> forwardHeuristic = new Heuristic<B>() {
+			@Override public int distance(B board) {
+				return Math.min(board.distanceTo(endBoard), board.distanceTo(alternativeEndBoard));
+			}
+
+			@Override public int childDistance(B parent, int parentDistance, B child) {
+				return distance(child);
+			}
+		};
+		return create(startBoard, endBoard, forwardHeuristic, startBoard.distanceHeuristic(), reporter);
+	}
+
+	/**
+	 * Create a solver using the given heuristics.
+	 *
+	 * @param forwardHeuristic a heuristic admissible for whichever of {@code endBoard} and its alternative is nearer
+	 * @param backwardHeuristic a heuristic admissible for {@code startBoard}
+	 */
+	public static <B extends Board<B>> BidirectionalSolver<B> create(B startBoard, B endBoard,
+			Heuristic<B> forwardHeuristic, Heuristic<B> backwardHeuristic, Reporter reporter) {
+		return new BidirectionalSolver<B>(startBoard, endBoard, forwardHeuristic, backwardHeuristic, reporter);
+	}
+
+	/** Return the length of an optimal solution or -1 if there's none. */
+	int solve() {
+		forward.offer(startBoard, 0, forward.heuristic.distance(startBoard));
+		for (final B b : Arrays.asList(endBoard, endBoard.alternative())) {
+			// An unreachable goal would only waste the effort of the backward search.
+			if (startBoard.canReach(b)) backward.offer(b, 0, backward.heuristic.distance(b));
+		}
+		while (!forward.queue.isEmpty() && !backward.queue.isEmpty()) {
+			final int forwardPriority = forward.queue.minTotalCost();
+			final int backwardPriority = backward.queue.minTotalCost();
+			if (bestCost <= Math.min(forwardPriority, backwardPriority)) break;
+			if (forwardPriority <= backwardPriority) {
+				forward.expand();
+			} else {
+				backward.expand();
+			}
+		}
+		if (meeting == null) return -1;
+		final Node<B> node = new Node<B>(meeting, bestCost - meetingBackwardCost, meetingBackwardCost);
+		reporter.report(EventType.DONE, expansions(), node);
+		return bestCost;
+	}
+
+	/** Return the number of expanded nodes summed over both directions. */
+	long expansions() {
+		return forward.expansions + backward.expansions;
+	}
+
+	long forwardExpansions() {
+		return forward.expansions;
+	}
+
+	long backwardExpansions() {
+		return backward.expansions;
+	}
+
+	/** Record a path through {@code board}, whose past costs from both directions are given. */
+	private void offerSolution(B board, int forwardCost, int backwardCost) {
+		final int cost = forwardCost + backwardCost;
+		if (cost >= bestCost) return;
+		bestCost = cost;
+		meeting = board;
+		meetingBackwardCost = backwardCost;
+		reporter.report(EventType.UPPER_BOUND, expansions(), new Node<B>(board, forwardCost, backwardCost));
+	}
+
+	private final class Direction {
+		Direction(Heuristic<B> heuristic) {
+			this.heuristic = heuristic;
+		}
+
+		/** Record that the board was reached with the given costs. */
+		void offer(B board, int pastCost, int futureCost) {
+			final long code = board.toLong();
+			final int oldPastCost = pastCosts.get(code);
+			if (oldPastCost!=LongCostMap.ABSENT && oldPastCost <= pastCost) return;
+			pastCosts.put(code, pastCost);
+			queue.add(code, pastCost, Math.max(pastCost + futureCost, 2 * pastCost));
+			final Direction other = this == forward ? backward : forward;
+			final int otherPastCost = other.pastCosts.get(code);
+			if (otherPastCost == LongCostMap.ABSENT) return;
+			if (this == forward) {
+				offerSolution(board, pastCost, otherPastCost);
+			} else {
+				offerSolution(board, otherPastCost, pastCost);
+			}
+		}
+
+		void expand() {
+			final long code = queue.poll();
+			final int pastCost = queue.lastPastCost();
+			// Skip the node when it has been reopened with a lower past cost.
+			if (pastCost > pastCosts.get(code)) return;
+			++expansions;
+			final B board = startBoard.fromLong(code);
+			final int futureCost = heuristic.distance(board);
+			final int childPastCost = pastCost + 1;
+			for (final B child : board.children()) {
+				final int childFutureCost = heuristic.childDistance(board, futureCost, child);
+				if (childPastCost + childFutureCost >= bestCost) continue;
+				offer(child, childPastCost, childFutureCost);
+			}
+		}
+
+		private final Heuristic<B> heuristic;
+		private final LongBucketQueue queue = new LongBucketQueue();
+		/** The lowest known past cost of every board reached, no matter if still open or already expanded. */
+		private final LongCostMap pastCosts = new LongCostMap();
+		private long expansions;
+	}
+
+	private final B startBoard;
+	private final B endBoard;
+	private final Direction forward;
+	private final Direction backward;
+	private final Reporter reporter;
+
+	private int bestCost = Integer.MAX_VALUE;
+	private B meeting;
+	private int meetingBackwardCost;
+}
@@ -0,0 +1,37 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class BidirectionalSolverTest extends TestCase {
+	public void testAgainstIda() {
+		final Random random = new Random(42);
+		final FifteenHeuristic heuristic = new ManhattanHeuristic(GOAL);
+		for (int i=0; i<20; ++i) {
+			final FifteenBoard start = randomWalk(random, 10 + 2*i);
+			final int expected = FifteenIdaSolver.create(start, heuristic, Reporter.quiet()).solve();
+			assertEquals(expected, BidirectionalSolver.create(start, GOAL, Reporter.quiet()).solve());
+			final BidirectionalSolver<FifteenBoard> solver = BidirectionalSolver.create(start, GOAL, heuristic,
+					new ManhattanHeuristic(start), Reporter.quiet());
+			assertEquals(expected, solver.solve());
+		}
+	}
+
+	public void testAlternative() {
+		final Random random = new Random(0);
+		for (int i=0; i<5; ++i) {
+			final FifteenBoard start = randomWalk(random, 20 + 5*i).alternative();
+			final int expected = FifteenIdaSolver.create(start, GOAL, Reporter.quiet()).solve();
+			assertEquals(expected, BidirectionalSolver.create(start, GOAL, Reporter.quiet()).solve());
+		}
+	}
+
+	public void testTrivial() {
+		assertEquals(0, BidirectionalSolver.create(GOAL, GOAL, Reporter.quiet()).solve());
+		assertEquals(0, BidirectionalSolver.create(GOAL.alternative(), GOAL, Reporter.quiet()).solve());
+	}
+}
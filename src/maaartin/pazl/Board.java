@@ -12,13 +12,102 @@ public abstract class Board<B extends Board<B>> {
 	 */
 	public abstract int distanceTo(B other);
 
+	/**
+	 * Return a {@link Heuristic} for the goal {@code this} giving the same values as {@link #distanceTo(Board)}.
+	 * The default implementation evaluates every child from scratch, so it should be overridden
+	 * when the distance of a child can be derived from the parent's one.
+	 */
+	Heuristic<B> distanceHeuristic() {
+		@SuppressWarnings("unchecked") final B goal = (B) this;
+		return new DistanceToHeuristic<B>(goal);
+	}
+
 	/** Return the 2-4 children obtained by moving a neighboring piece to the empty field. */
 	public abstract Collection<B> children();
 
+	/**
+	 * Store the {@link #toLong()} codes of the children into {@code codes}, in the order of {@link #children()},
+	 * and return their number. This allows the solvers to skip the already known children without creating them.
+	 * The default implementation uses {@link #children()}, so it should be overridden to avoid the allocations.
+	 *
+	 * @param codes an array of length at least {@link #MAX_CHILDREN}
+	 * @throws UnsupportedOperationException if {@link #hasLongEncoding()} returns false
+	 */
+	public int childCodes(long[] codes) {
+		int result = 0;
+		for (final B child : children()) codes[result++] = child.toLong();
+		return result;
+	}
+
+	/**
+	 * Return the child given by a code stored by {@link #childCodes(long[])}.
+	 * The default implementation uses {@link #fromLong(long)}, which may be slower than deriving it from
+	 * {@code this}.
+	 */
+	public B child(long childCode) {
+		return fromLong(childCode);
+	}
+
+	/**
+	 * Return the position of {@code this} among the children of the child given by a code stored
+	 * by {@link #childCodes(long[])}, i.e., the index of the move undoing the move to the child.
+	 * This allows to identify the moves without creating the child.
+	 * The default implementation creates the child and its children, so it should be overridden.
+	 */
+	public int indexInChild(long childCode) {
+		final long[] codes = new long[MAX_CHILDREN];
+		final int count = child(childCode).childCodes(codes);
+		final long code = toLong();
+		for (int i=0; i<count; ++i) {
+			if (codes[i] == code) return i;
+		}
+		throw new IllegalArgumentException("Not a child: " + childCode);
+	}
+
 	/**
 	 *  Return a board differing by a single swap. This gets used for nearly-solving unsolvable problems.
 	 *
 	 *  <p>The operation must be self-inverse.
 	 */
 	public abstract B alternative();
+
+	/**
+	 * Return false if {@code this} provably can't be transformed into {@code other} by a sequence of moves.
+	 * This allows the solvers to ignore unreachable goals. The default implementation knows nothing and returns
+	 * true.
+	 */
+	public boolean canReach(B other) {
+		return true;
+	}
+
+	/**
+	 * Return true if {@link #toLong()} and {@link #fromLong(long)} are supported.
+	 * This allows the solvers to store the boards in primitive collections.
+	 */
+	public boolean hasLongEncoding() {
+		return false;
+	}
+
+	/**
+	 * Return a non-zero long uniquely identifying {@code this}, so that {@code fromLong(toLong())} equals
+	 * {@code this}.
+	 *
+	 * @throws UnsupportedOperationException if {@link #hasLongEncoding()} returns false
+	 */
+	public long toLong() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Return the board encoded by the argument, see {@link #toLong()}.
+	 * This is an instance method just because of the missing static polymorphism.
+	 *
+	 * @throws UnsupportedOperationException if {@link #hasLongEncoding()} returns false
+	 */
+	public B fromLong(long code) {
+		throw new UnsupportedOperationException();
+	}
+
+	/** The maximum number of children of any board. */
+	public static final int MAX_CHILDREN = 4;
 }
@@ -0,0 +1,44 @@
+package maaartin.pazl;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
+/** The standard goal of the {@link FifteenBoard} and random walks creating instances of a limited difficulty. */
+final class Boards {
+	private Boards() {
+	}
+
+	/**
+	 * Return the board reached from {@link #GOAL} by a random walk of the given length, which may undo its moves.
+	 */
+	static FifteenBoard randomWalk(Random random, int length) {
+		return randomWalk(GOAL, random, length);
+	}
+
+	/**
+	 * Return the board reached from {@code start} by a random walk of the given length, which may undo its moves.
+	 */
+	static <B extends Board<B>> B randomWalk(B start, Random random, int length) {
+		return randomWalk(start, random, length, true);
+	}
+
+	/**
+	 * Return the board reached from {@code start} by a random walk of the given length.
+	 * Unless {@code mayUndo}, no step returns to the board before the previous step.
+	 */
+	static <B extends Board<B>> B randomWalk(B start, Random random, int length, boolean mayUndo) {
+		B previous = null;
+		B result = start;
+		for (int i=0; i<length; ++i) {
+			final List<B> children = Lists.newArrayList(result.children());
+			if (!mayUndo) children.remove(previous);
+			previous = result;
+			result = children.get(random.nextInt(children.size()));
+		}
+		return result;
+	}
+
+	static final FifteenBoard GOAL = FifteenBoard.from(0x1234_5678_9ABC_DEF0L);
+}
@@ -0,0 +1,46 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import lombok.Getter;
+
+/**
+ * An implementation of {@link OpenList} for boards supporting {@link Board#toLong()} and having small integral
+ * costs. It's backed by a {@link LongBucketQueue}, see there for the tie-breaking rules.
+ */
+final class BucketOpenList<B extends Board<B>> implements OpenList<B> {
+	/** @param prototype any board used for decoding */
+	BucketOpenList(B prototype) {
+		this(prototype, new LongBucketQueue());
+	}
+
+	/** Create a list backed by the given queue of board codes. */
+	BucketOpenList(B prototype, LongBucketQueue queue) {
+		checkArgument(prototype.hasLongEncoding());
+		this.prototype = prototype;
+		this.queue = queue;
+	}
+
+	@Override public void add(Node<B> node) {
+		final int pastCost = node.pastCost();
+		queue.add(node.board().toLong(), pastCost, pastCost + node.futureCost());
+	}
+
+	@Override public Node<B> poll() {
+		if (queue.isEmpty()) return null;
+		final long code = queue.poll();
+		return new Node<B>(prototype.fromLong(code), queue.lastPastCost(),
+				queue.lastTotalCost() - queue.lastPastCost());
+	}
+
+	@Override public int size() {
+		return queue.size();
+	}
+
+	@Override public void clear() {
+		queue.clear();
+	}
+
+	private final B prototype;
+	@Getter private final LongBucketQueue queue;
+}
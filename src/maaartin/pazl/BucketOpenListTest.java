@@ -0,0 +1,43 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+
+import junit.framework.TestCase;
+
+public class BucketOpenListTest extends TestCase {
+	public void testOrder() {
+		final BucketOpenList<FifteenBoard> list = new BucketOpenList<FifteenBoard>(GOAL);
+		final FifteenBoard[] children = GOAL.children().toArray(new FifteenBoard[0]);
+		list.add(new Node<FifteenBoard>(GOAL, 3, 5));
+		list.add(new Node<FifteenBoard>(children[0], 2, 6));
+		list.add(new Node<FifteenBoard>(children[1], 4, 4));
+		list.add(new Node<FifteenBoard>(GOAL, 0, 9));
+		list.add(new Node<FifteenBoard>(children[0], 1, 2));
+		assertEquals(5, list.size());
+
+		assertNode(children[0], 1, 2, list.poll());
+		// Within the same total cost, the higher past cost wins.
+		assertNode(children[1], 4, 4, list.poll());
+		assertNode(GOAL, 3, 5, list.poll());
+		// Nodes may be added with a total cost lower than the previously polled one.
+		list.add(new Node<FifteenBoard>(children[1], 0, 1));
+		assertNode(children[1], 0, 1, list.poll());
+		assertNode(children[0], 2, 6, list.poll());
+		assertNode(GOAL, 0, 9, list.poll());
+		assertNull(list.poll());
+		assertEquals(0, list.size());
+	}
+
+	public void testLifo() {
+		final BucketOpenList<FifteenBoard> list = new BucketOpenList<FifteenBoard>(GOAL);
+		final FifteenBoard[] children = GOAL.children().toArray(new FifteenBoard[0]);
+		for (final FifteenBoard b : children) list.add(new Node<FifteenBoard>(b, 1, 1));
+		for (int i=children.length; i-->0; ) assertEquals(children[i], list.poll().board());
+	}
+
+	private void assertNode(FifteenBoard board, int pastCost, int futureCost, Node<FifteenBoard> node) {
+		assertEquals(board, node.board());
+		assertEquals(pastCost, node.pastCost());
+		assertEquals(futureCost, node.futureCost());
+	}
+}
@@ -0,0 +1,18 @@
+package maaartin.pazl;
+
+/** The set of already generated boards together with the lowest known past costs. */
+interface ClosedSet<B extends Board<B>> {
+	/**
+	 * Record that {@code board} can be reached using {@code pastCost} steps.
+	 * Return true if the board was unknown or known with a higher past cost, i.e., if it has to be (re)opened.
+	 */
+	boolean offer(B board, int pastCost);
+
+	/** Return the lowest known past cost of {@code board} or -1 if it has never been offered. */
+	int pastCost(B board);
+
+	int size();
+
+	/** Remove all boards, keeping the allocated memory for reuse. */
+	void clear();
+}
@@ -0,0 +1,35 @@
+package maaartin.pazl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A {@link MetricsSink} writing a CSV line per snapshot. The histogram gets omitted, apart from the lowest total
+ * cost with expanded nodes.
+ */
+@RequiredArgsConstructor final class CsvMetricsSink implements MetricsSink {
+	@SuppressWarnings("boxing") @Override public void accept(MetricsSnapshot s) {
+		try {
+			if (!headerWritten) {
+				output.write(HEADER);
+				headerWritten = true;
+			}
+			output.write(String.format(Locale.ROOT, "%d,%s,%.3f,%d,%d,%d,%d,%d,%d,%d,%.0f,%d,%d\n",
+					s.timestampMillis(), s.type().name(), 1e-9 * s.elapsedNanos(), s.step(), s.cost(),
+					s.expansions(), s.generated(), s.staleSkips(), s.openSize(), s.closedSize(),
+					s.expansionsPerSecond(), s.heuristicError(), s.heapUsed()));
+			output.flush();
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static final String HEADER = "timestamp_ms,event,elapsed_s,step,cost,expansions,generated,stale_skips,"
+			+ "open_size,closed_size,expansions_per_s,heuristic_error,heap_used\n";
+
+	private final Writer output;
+	private boolean headerWritten;
+}
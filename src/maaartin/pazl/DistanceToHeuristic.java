@@ -0,0 +1,16 @@
+package maaartin.pazl;
+
+import lombok.RequiredArgsConstructor;
+
+/** The default {@link Heuristic}, simply using {@link Board#distanceTo(Board)}. */
+@RequiredArgsConstructor final class DistanceToHeuristic<B extends Board<B>> implements Heuristic<B> {
+	@Override public int distance(B board) {
+		return board.distanceTo(goal);
+	}
+
+	@Override public int childDistance(B parent, int parentDistance, B child) {
+		return child.distanceTo(goal);
+	}
+
+	private final B goal;
+}
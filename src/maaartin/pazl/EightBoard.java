@@ -0,0 +1,256 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+
+/**
+ * Represents the 3x3 board, using the same packed representation as {@link FifteenBoard}.
+ * The nine nibbles get stored in the lowest 36 bits.
+ *
+ * <p>Terminology:<ul>
+ * <li>Index is a number between 0 and 8 denoting the position on the board.
+ * <li>Piece is a number between 0 and 8 with 0 denoting the empty space.
+ */
+public class EightBoard extends Board<EightBoard> {
+	/**
+	 * Create a new board by interpreting the input as list of pieces. Accepts two formats:<ul>
+	 *
+	 * <li>List of nine space-separated decimal numbers like {@code "8 6 7 2 5 4 3 0 1"}
+	 * <li>List of three underscore-separated groups of three digits like {@code "867_254_301"}
+	 *
+	 */
+	static EightBoard from(String input) {
+		checkArgument(INPUT_STRING_PATTERN.matcher(input).matches());
+		final List<String> split = input.contains(" ")
+				? Splitter.on(" ").splitToList(input)
+				: Splitter.fixedLength(1).splitToList(input.replaceAll("_", ""));
+		checkArgument(split.size() == INDEX_LIMIT);
+		long result = 0;
+		for (final String s : split) {
+			final int n = Integer.parseInt(s);
+			checkArgument(0<=n && n<INDEX_LIMIT);
+			result = (result << 4) + n;
+		}
+		return EightBoard.from(result);
+	}
+
+	/**
+	 * Create a new board by interpreting every digit of the argument as the piece on the corresponding index,
+	 * where 0 denotes the empty place.
+	 * See also {@link #toString()}.
+	 */
+	static EightBoard from(long indexToPiece) {
+		checkArgument(isValidBoard(indexToPiece));
+		return new EightBoard(indexToPiece, dual(indexToPiece));
+	}
+
+	private EightBoard(long indexToPiece, long pieceToIndex) {
+		assert pieceToIndex == dual(indexToPiece);
+		this.indexToPiece = indexToPiece;
+		this.pieceToIndex = pieceToIndex;
+	}
+
+	static int indexToRow(int index) {
+		assert 0 <= index && index < INDEX_LIMIT;
+		return index % SIZE;
+	}
+
+	static int indexToCol(int index) {
+		assert 0 <= index && index < INDEX_LIMIT;
+		return index / SIZE;
+	}
+
+	@VisibleForTesting static long dual(long data) {
+		long result = 0;
+		for (int index=0; index<INDEX_LIMIT; ++index) result += (long) index << (4 * get(data, index));
+		return result;
+	}
+
+	/** Return true if {@code data} in hexadecimal contains exactly the digits from 0 to 8. */
+	private static boolean isValidBoard(long data) {
+		if ((data >>> 4*INDEX_LIMIT) != 0) return false;
+		int bitset = 0;
+		for (int index=0; index<INDEX_LIMIT; ++index) bitset |= 1 << get(data, index);
+		return bitset == (1 << INDEX_LIMIT) - 1;
+	}
+
+	/**
+	 * Return a string representation of {@code this}, consisting of 3 groups of 3 digits.
+	 * The groups are separated by an underscore and each corresponds with a puzzle row.
+	 * Every digit corresponds with a piece, with 0 denoting the empty position.
+	 */
+	@SuppressWarnings("boxing") @Override public String toString() {
+		return String.format("%03X_%03X_%03X",
+				(indexToPiece>>24) & 0xFFF,
+				(indexToPiece>>12) & 0xFFF,
+				(indexToPiece>>00) & 0xFFF);
+	}
+
+	@Override public boolean equals(Object obj) {
+		if (!(obj instanceof EightBoard)) return false;
+		// The other field can be ignored as it's the dual.
+		return indexToPiece == ((EightBoard) obj).indexToPiece;
+	}
+
+	@Override public int hashCode() {
+		final long result = (123456789 * indexToPiece);
+		return Longs.hashCode(result);
+	}
+
+	@Override public int distanceTo(EightBoard other) {
+		int result = 0;
+		for (int piece=1; piece<INDEX_LIMIT; ++piece) {
+			result += INDEX_DISTANCES[get(pieceToIndex, piece)][get(other.pieceToIndex, piece)];
+		}
+		return result;
+	}
+
+	@Override public Collection<EightBoard> children() {
+		final int emptyIndex = pieceToIndex(0);
+		final List<EightBoard> result = Lists.newArrayListWithCapacity(4);
+		for (final int index : NEIGHBORS[emptyIndex]) result.add(swap(emptyIndex, index));
+		return result;
+	}
+
+	@Override public int childCodes(long[] codes) {
+		final int emptyIndex = pieceToIndex(0);
+		final int[] neighbors = NEIGHBORS[emptyIndex];
+		for (int i=0; i<neighbors.length; ++i) {
+			final int index = neighbors[i];
+			final long piece = indexToPiece(index);
+			codes[i] = indexToPiece ^ (piece << 4*index) ^ (piece << 4*emptyIndex);
+		}
+		return neighbors.length;
+	}
+
+	@Override public EightBoard child(long childCode) {
+		final int emptyIndex = pieceToIndex(0);
+		final long diff = (childCode ^ indexToPiece) & ~(15L << 4*emptyIndex);
+		final EightBoard result = swap(emptyIndex, Long.numberOfTrailingZeros(diff) >> 2);
+		assert result.indexToPiece == childCode;
+		return result;
+	}
+
+	@Override public int indexInChild(long childCode) {
+		final int emptyIndex = pieceToIndex(0);
+		final long diff = (childCode ^ indexToPiece) & ~(15L << 4*emptyIndex);
+		return Ints.indexOf(NEIGHBORS[Long.numberOfTrailingZeros(diff) >> 2], emptyIndex);
+	}
+
+	@Override public EightBoard alternative() {
+		// Swap the first two non-empty positions.
+		final int index1 = indexToPiece(0) == 0 ? 2 : 0;
+		final int index2 = indexToPiece(1) == 0 ? 2 : 1;
+		return swap(index1, index2);
+	}
+
+	/**
+	 * Return true if {@code this} can be transformed into {@code other} by a sequence of moves.
+	 * This is the case for exactly one of {@code other} and {@code other.alternative()}.
+	 */
+	@Override public boolean canReach(EightBoard other) {
+		return parity(indexToPiece) == parity(other.indexToPiece);
+	}
+
+	/**
+	 * Return the parity of the permutation combined with the parity of the empty field position.
+	 * Every move is a transposition moving the empty field by one, so it keeps the result unchanged.
+	 */
+	static int parity(long indexToPiece) {
+		int inversions = 0;
+		for (int i=0; i<INDEX_LIMIT; ++i) {
+			for (int j=i+1; j<INDEX_LIMIT; ++j) {
+				if (get(indexToPiece, i) > get(indexToPiece, j)) ++inversions;
+			}
+		}
+		final int emptyIndex = get(dual(indexToPiece), 0);
+		return (inversions + indexToRow(emptyIndex) + indexToCol(emptyIndex)) & 1;
+	}
+
+	@Override public boolean hasLongEncoding() {
+		return true;
+	}
+
+	/** Return {@link #indexToPiece}, which is never zero as at most one piece is empty. */
+	@Override public long toLong() {
+		return indexToPiece;
+	}
+
+	@Override public EightBoard fromLong(long code) {
+		return EightBoard.from(code);
+	}
+
+	/**
+	 * Swap the two pieces at the indexes given by the arguments.
+	 *
+	 * <p>This is a valid move iff the indexes correspond to neighboring positions and one of the positions is empty.
+	 */
+	@VisibleForTesting EightBoard swap(int index1, int index2) {
+		final long piece1 = indexToPiece(index1);
+		final long piece2 = indexToPiece(index2);
+		final long pieceXor = piece1 ^ piece2;
+		final long childIndexToPiece = indexToPiece ^ (pieceXor << 4*index1) ^ (pieceXor << 4*index2);
+		final long indexXor = index2 ^ index1;
+		final long childPieceToIndex = pieceToIndex ^ (indexXor << 4*piece1) ^ (indexXor << 4*piece2);
+		return new EightBoard(childIndexToPiece, childPieceToIndex);
+	}
+
+	@SuppressWarnings("boxing") private static int[][] computeNeighbors() {
+		final int[][] result = new int[INDEX_LIMIT][];
+		for (int index=0; index<INDEX_LIMIT; ++index) {
+			final int col = indexToCol(index);
+			final int row = indexToRow(index);
+			final List<Integer> neighbors = Lists.newArrayList();
+			if (col > 0) neighbors.add(index-SIZE);
+			if (col < SIZE-1) neighbors.add(index+SIZE);
+			if (row > 0) neighbors.add(index-1);
+			if (row < SIZE-1) neighbors.add(index+1);
+			result[index] = Ints.toArray(neighbors);
+		}
+		return result;
+	}
+
+	private static int[][] computeIndexDistances() {
+		final int[][] result = new int[INDEX_LIMIT][INDEX_LIMIT];
+		for (int i=0; i<INDEX_LIMIT; ++i) {
+			for (int j=0; j<INDEX_LIMIT; ++j) {
+				result[i][j] = Math.abs(indexToCol(i) - indexToCol(j)) + Math.abs(indexToRow(i) - indexToRow(j));
+			}
+		}
+		return result;
+	}
+
+	int indexToPiece(int index) {
+		return get(indexToPiece, index);
+	}
+
+	int pieceToIndex(int piece) {
+		return get(pieceToIndex, piece);
+	}
+
+	static int get(long data, int index) {
+		return (int) ((data >>> (4*index)) & 0xF);
+	}
+
+	private static final Pattern INPUT_STRING_PATTERN = Pattern.compile("(\\d+ ){8}\\d+|(\\d{3}_){2}\\d{3}");
+
+	private static final int SIZE = 3;
+	static final int INDEX_LIMIT = SIZE*SIZE;
+
+	/** The indexes neighboring the given index. */
+	static final int[][] NEIGHBORS = computeNeighbors();
+	/** The manhattan distances between all pairs of indexes. */
+	private static final int[][] INDEX_DISTANCES = computeIndexDistances();
+
+	final long indexToPiece;
+	final long pieceToIndex;
+}
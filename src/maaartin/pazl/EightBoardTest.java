@@ -0,0 +1,72 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import junit.framework.TestCase;
+
+public class EightBoardTest extends TestCase {
+	public void testFromString() {
+		assertEquals(GOAL, EightBoard.from("1 2 3 4 5 6 7 8 0"));
+		assertEquals(GOAL, EightBoard.from("123_456_780"));
+		assertEquals("123_456_780", GOAL.toString());
+		for (int i=0; i<10; ++i) {
+			final EightBoard board = randomWalk(GOAL, random, 30);
+			assertEquals(board, EightBoard.from(board.toString()));
+			assertEquals(board, board.fromLong(board.toLong()));
+		}
+		try {
+			EightBoard.from("1 2 3 4 5 6 7 8 8");
+			fail();
+		} catch (final IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+
+	public void testChildren() {
+		final Collection<EightBoard> children = Sets.newHashSet(GOAL.children());
+		assertEquals(2, children.size());
+		for (final EightBoard b : children) {
+			assertEquals(1, b.distanceTo(GOAL));
+			assertEquals(3, b.children().size());
+			assertTrue(b.children().contains(GOAL));
+		}
+		final EightBoard center = EightBoard.from("123_405_678");
+		assertEquals(4, center.children().size());
+	}
+
+	public void testChildCodes() {
+		final long[] codes = new long[Board.MAX_CHILDREN];
+		for (int i=0; i<20; ++i) {
+			final EightBoard board = randomWalk(GOAL, random, 30);
+			final List<EightBoard> children = Lists.newArrayList(board.children());
+			assertEquals(children.size(), board.childCodes(codes));
+			for (int j=0; j<children.size(); ++j) {
+				assertEquals(children.get(j).toLong(), codes[j]);
+				assertEquals(children.get(j), board.child(codes[j]));
+				assertEquals(Lists.newArrayList(children.get(j).children()).indexOf(board),
+						board.indexInChild(codes[j]));
+			}
+		}
+	}
+
+	public void testCanReach() {
+		for (int i=0; i<10; ++i) {
+			final EightBoard b = randomWalk(GOAL, random, 30);
+			assertTrue(b.canReach(GOAL));
+			assertFalse(b.canReach(GOAL.alternative()));
+			assertFalse(b.alternative().canReach(GOAL));
+			assertEquals(b, b.alternative().alternative());
+		}
+	}
+
+	private final Random random = new Random(42);
+
+	private static final EightBoard GOAL = EightDistanceTable.STANDARD_GOAL;
+}
@@ -0,0 +1,146 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+import java.util.List;
+
+import lombok.Getter;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Lists;
+
+/**
+ * The exact distances of all boards of the {@link EightBoard} to a goal or its alternative, whichever is reachable.
+ * So the optimal solution length and the next move get answered by table lookups instead of a search.
+ *
+ * <p>The table takes one byte per board reachable from the goal, i.e., 9!/2 bytes, and gets indexed by a perfect
+ * hash combining the empty field position with the rank of the first six non-empty pieces in index order. The last
+ * two pieces are determined by the parity of this order, which no move changes on a board of odd width, as a
+ * vertical move moves a piece over two others. The boards reaching the alternative get relabeled by swapping the two
+ * pieces the alternative swaps, which maps them onto the boards reaching the goal while keeping all distances.
+ */
+final class EightDistanceTable {
+	private EightDistanceTable(EightBoard goal, byte[] table) {
+		this.goal = goal;
+		this.table = table;
+		final long indexToPiece = goal.indexToPiece;
+		final int index1 = goal.indexToPiece(0) == 0 ? 2 : 0;
+		final int index2 = goal.indexToPiece(1) == 0 ? 2 : 1;
+		final long pieceXor = EightBoard.get(indexToPiece, index1) ^ EightBoard.get(indexToPiece, index2);
+		swappedLabels = IDENTITY_LABELS
+				^ (pieceXor << 4*EightBoard.get(indexToPiece, index1))
+				^ (pieceXor << 4*EightBoard.get(indexToPiece, index2));
+		goalParity = rankAndParity(goal, IDENTITY_LABELS) & 1;
+	}
+
+	/** Compute the table for the given goal, which takes about a tenth of a second. */
+	static EightDistanceTable create(EightBoard goal) {
+		final byte[] table = new byte[TABLE_SIZE];
+		final EightDistanceTable result = new EightDistanceTable(goal, table);
+		result.build();
+		return result;
+	}
+
+	/** Return the table for {@link #STANDARD_GOAL}, which gets computed on the first call. */
+	static EightDistanceTable standard() {
+		return STANDARD.get();
+	}
+
+	/** Return the length of an optimal solution for {@code board}. */
+	int distance(EightBoard board) {
+		return table[index(board)];
+	}
+
+	/** Return a child of {@code board} lying on an optimal solution or null if the board is solved. */
+	EightBoard next(EightBoard board) {
+		final int distance = distance(board);
+		if (distance == 0) return null;
+		for (final EightBoard child : board.children()) {
+			if (distance(child) < distance) return child;
+		}
+		throw new IllegalStateException("Corrupted table for " + board);
+	}
+
+	/** Return an optimal solution starting with {@code board} and ending with the goal or its alternative. */
+	List<EightBoard> path(EightBoard board) {
+		final List<EightBoard> result = Lists.newArrayListWithCapacity(distance(board) + 1);
+		for (EightBoard b = board; b != null; b = next(b)) result.add(b);
+		return result;
+	}
+
+	/** Return the perfect hash of the board, relabeled if needed so that it reaches the goal. */
+	private int index(EightBoard board) {
+		int result = rankAndParity(board, IDENTITY_LABELS);
+		if ((result & 1) != goalParity) result = rankAndParity(board, swappedLabels);
+		return board.pieceToIndex(0) * PIECE_RANKS + (result >>> 1);
+	}
+
+	/**
+	 * Return twice the rank of the first six non-empty pieces in index order after relabeling them by the nibbles
+	 * of {@code labels} plus the parity of the order of all of them. The rank is computed as a Lehmer code,
+	 * whose digits sum up to the number of inversions.
+	 */
+	private static int rankAndParity(EightBoard board, long labels) {
+		int used = 0;
+		int rank = 0;
+		int inversions = 0;
+		for (int i=0, k=0; i<EightBoard.INDEX_LIMIT; ++i) {
+			final int piece = EightBoard.get(labels, board.indexToPiece(i)) - 1;
+			if (piece < 0) continue;
+			final int digit = piece - Integer.bitCount(used & ((1<<piece) - 1));
+			if (k < PIECES-2) rank = rank * (PIECES-k) + digit;
+			inversions += digit;
+			used |= 1 << piece;
+			++k;
+		}
+		return 2*rank + (inversions & 1);
+	}
+
+	/** Fill the table using a breadth-first search from the goal. */
+	private void build() {
+		Arrays.fill(table, UNKNOWN);
+		final long[] queue = new long[TABLE_SIZE];
+		int size = 0;
+		queue[size++] = goal.indexToPiece;
+		table[index(goal)] = 0;
+		for (int head=0; head<size; ++head) {
+			final EightBoard board = EightBoard.from(queue[head]);
+			final byte childDistance = (byte) (table[index(board)] + 1);
+			for (final EightBoard child : board.children()) {
+				final int index = index(child);
+				if (table[index] != UNKNOWN) continue;
+				table[index] = childDistance;
+				queue[size++] = child.indexToPiece;
+			}
+		}
+		checkState(size == TABLE_SIZE, "Reached %s boards only", size);
+	}
+
+	/** The goal used by {@link #standard()}. */
+	static final EightBoard STANDARD_GOAL = EightBoard.from(0x1_2345_6780L);
+
+	private static final Supplier<EightDistanceTable> STANDARD =
+			Suppliers.memoize(new Supplier<EightDistanceTable>() {
+				@Override public EightDistanceTable get() {
+					return create(STANDARD_GOAL);
+				}
+			});
+
+	private static final int PIECES = EightBoard.INDEX_LIMIT - 1;
+	/** The number of orders of the non-empty pieces having a given parity, i.e., 8!/2. */
+	private static final int PIECE_RANKS = 8*7*6*5*4*3;
+	/** The number of boards reachable from a given board, i.e., 9!/2. */
+	static final int TABLE_SIZE = EightBoard.INDEX_LIMIT * PIECE_RANKS;
+
+	/** Maps every piece to itself, when used as nibble array. */
+	private static final long IDENTITY_LABELS = 0x8_7654_3210L;
+	private static final byte UNKNOWN = -1;
+
+	@Getter private final EightBoard goal;
+	private final byte[] table;
+	/** The relabeling mapping the boards reaching the alternative of the goal onto boards reaching the goal. */
+	private final long swappedLabels;
+	private final int goalParity;
+}
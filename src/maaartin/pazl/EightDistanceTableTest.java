@@ -0,0 +1,57 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class EightDistanceTableTest extends TestCase {
+	public void testDistance() {
+		final EightDistanceTable table = EightDistanceTable.standard();
+		assertEquals(0, table.distance(GOAL));
+		assertEquals(0, table.distance(GOAL.alternative()));
+		// The two hardest instances need 31 moves.
+		assertEquals(31, table.distance(EightBoard.from("867_254_301")));
+		assertEquals(31, table.distance(EightBoard.from("647_850_321")));
+		final Random random = new Random(42);
+		for (int i=0; i<30; ++i) {
+			EightBoard start = randomWalk(GOAL, random, 5 + 3*i);
+			if (i%3 == 0) start = start.alternative();
+			final int expected = Solver.create(start, GOAL, Reporter.quiet()).solve();
+			assertEquals(expected, table.distance(start));
+		}
+	}
+
+	public void testPath() {
+		final EightDistanceTable table = EightDistanceTable.standard();
+		assertNull(table.next(GOAL));
+		final Random random = new Random(43);
+		for (int i=0; i<30; ++i) {
+			EightBoard start = randomWalk(GOAL, random, 50);
+			if (i%2 == 0) start = start.alternative();
+			final List<EightBoard> path = table.path(start);
+			assertEquals(table.distance(start) + 1, path.size());
+			assertEquals(start, path.get(0));
+			final EightBoard end = path.get(path.size() - 1);
+			assertTrue(end.equals(GOAL) || end.equals(GOAL.alternative()));
+			for (int j=1; j<path.size(); ++j) assertTrue(path.get(j-1).children().contains(path.get(j)));
+		}
+	}
+
+	public void testOtherGoal() {
+		final EightBoard goal = EightBoard.from("012_345_678");
+		final EightDistanceTable table = EightDistanceTable.create(goal);
+		assertEquals(goal, table.goal());
+		final Random random = new Random(44);
+		for (int i=0; i<10; ++i) {
+			final boolean isStandard = random.nextBoolean();
+			final EightBoard walk = randomWalk(GOAL, random, 40);
+			final EightBoard start = isStandard ? walk : walk.alternative();
+			assertEquals(Solver.create(start, goal, Reporter.quiet()).solve(), table.distance(start));
+		}
+	}
+
+	private static final EightBoard GOAL = EightDistanceTable.STANDARD_GOAL;
+}
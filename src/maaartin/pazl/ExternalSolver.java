@@ -0,0 +1,300 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Breadth-first iterative deepening A* with delayed duplicate detection on disk,
+ * for boards supporting {@link Board#toLong()}.
+ *
+ * <p>Every iteration runs a breadth-first search pruning all nodes whose total cost exceeds the current bound.
+ * The layers of the search are files of sorted board codes. The children of a layer get collected in memory
+ * up to {@code runLength} codes, sorted and written as a run file. The runs get merged into the next layer,
+ * dropping the duplicates and the codes contained in the previous layer. As every move is reversible
+ * and changes the parity of the empty field position, no other layer can contain them, unless the pruning
+ * made a board appear later than its distance, which costs just some redundant work.
+ *
+ * <p>So the heap usage is bounded by the run length and only three layers plus the runs live on disk.
+ */
+final class ExternalSolver<B extends Board<B>> {
+	private ExternalSolver(B startBoard, B endBoard, Heuristic<B> heuristic, Path directory, int runLength,
+			Reporter reporter) {
+		checkArgument(startBoard.hasLongEncoding());
+		checkArgument(runLength > 0);
+		this.startBoard = startBoard;
+		this.endBoard = endBoard;
+		this.alternativeEndBoard = endBoard.alternative();
+		this.heuristic = heuristic;
+		this.directory = directory;
+		this.reporter = reporter;
+		run = new long[runLength];
+	}
+
+	/**
+	 * Create a solver using the given heuristic, which must be admissible for {@code endBoard}.
+	 *
+	 * @param directory where the temporary files get stored
+	 * @param runLength the number of codes sorted in memory at once, taking 8 bytes each
+	 */
+	public static <B extends Board<B>> ExternalSolver<B> create(B startBoard, B endBoard, Heuristic<B> heuristic,
+			Path directory, int runLength, Reporter reporter) {
+		return new ExternalSolver<B>(startBoard, endBoard, heuristic, directory, runLength, reporter);
+	}
+
+	/** Return the length of an optimal solution or -1 if there's none. */
+	int solve() throws IOException {
+		Files.createDirectories(directory);
+		for (int bound=heuristic.distance(startBoard); bound<MAX_COST; bound=nextBound) {
+			reporter.report(EventType.LOWER_BOUND, expansions, new Node<B>(startBoard, 0, bound));
+			final int result = iterate(bound);
+			if (result >= 0) {
+				reporter.report(EventType.DONE, expansions, new Node<B>(solution, result, 0));
+				return result;
+			}
+			if (nextBound == Integer.MAX_VALUE) break;
+		}
+		return -1;
+	}
+
+	/** Return the number of expanded nodes summed over all iterations. */
+	long expansions() {
+		return expansions;
+	}
+
+	/** Return the number of boards in the largest layer. */
+	long maxLayerSize() {
+		return maxLayerSize;
+	}
+
+	/** Run a breadth-first search up to the given bound and return the solution length or -1 if none was found. */
+	private int iterate(int bound) throws IOException {
+		nextBound = Integer.MAX_VALUE;
+		runSize = 0;
+		Path previousLayer = null;
+		Path layer = newFile();
+		try (LongWriter writer = new LongWriter(layer)) {
+			writer.write(startBoard.toLong());
+		}
+		try {
+			for (int pastCost=0; ; ++pastCost) {
+				final List<Path> runs = Lists.newArrayList();
+				try {
+					if (expandLayer(layer, pastCost, bound, runs)) return pastCost;
+					if (runs.isEmpty()) return -1;
+					final Path nextLayer = newFile();
+					final long size = mergeRuns(runs, previousLayer, nextLayer);
+					maxLayerSize = Math.max(maxLayerSize, size);
+					if (previousLayer != null) Files.delete(previousLayer);
+					previousLayer = layer;
+					layer = nextLayer;
+				} finally {
+					for (final Path p : runs) Files.deleteIfExists(p);
+				}
+			}
+		} finally {
+			if (previousLayer != null) Files.deleteIfExists(previousLayer);
+			Files.deleteIfExists(layer);
+		}
+	}
+
+	/**
+	 * Expand all boards of the layer and write their children into sorted runs. Return true if a solution was found.
+	 */
+	private boolean expandLayer(Path layer, int pastCost, int bound, List<Path> runs) throws IOException {
+		final int childPastCost = pastCost + 1;
+		try (LongReader reader = new LongReader(layer)) {
+			for (; reader.hasNext(); reader.advance()) {
+				final B board = startBoard.fromLong(reader.current());
+				final int futureCost = heuristic.distance(board);
+				if (board.equals(endBoard) || board.equals(alternativeEndBoard)) {
+					solution = board;
+					return true;
+				}
+				reporter.report(EventType.NOTHING, ++expansions, new Node<B>(board, pastCost, futureCost));
+				for (final B child : board.children()) {
+					final int childTotalCost = childPastCost + heuristic.childDistance(board, futureCost, child);
+					if (childTotalCost > bound) {
+						nextBound = Math.min(nextBound, childTotalCost);
+						continue;
+					}
+					run[runSize++] = child.toLong();
+					if (runSize == run.length) writeRun(runs);
+				}
+			}
+		}
+		if (runSize > 0) writeRun(runs);
+		return false;
+	}
+
+	/** Sort the codes collected in memory and write them without duplicates into a new run file. */
+	private void writeRun(List<Path> runs) throws IOException {
+		Arrays.sort(run, 0, runSize);
+		final Path path = newFile();
+		runs.add(path);
+		try (LongWriter writer = new LongWriter(path)) {
+			for (int i=0; i<runSize; ++i) {
+				if (i==0 || run[i]!=run[i-1]) writer.write(run[i]);
+			}
+		}
+		runSize = 0;
+	}
+
+	/**
+	 * Merge the runs into {@code output}, dropping duplicates and codes contained in {@code subtracted},
+	 * and return the number of codes written. When there are too many runs, they get merged in multiple passes.
+	 */
+	private long mergeRuns(List<Path> runs, Path subtracted, Path output) throws IOException {
+		while (runs.size() > FAN_IN) {
+			final List<Path> group = Lists.newArrayList(runs.subList(0, FAN_IN));
+			final Path merged = newFile();
+			runs.add(merged);
+			merge(group, null, merged);
+			for (final Path p : group) Files.delete(p);
+			runs.subList(0, FAN_IN).clear();
+		}
+		return merge(runs, subtracted, output);
+	}
+
+	private static long merge(List<Path> inputs, Path subtracted, Path output) throws IOException {
+		final List<LongReader> readers = Lists.newArrayList();
+		try (LongWriter writer = new LongWriter(output);
+				LongReader subtractedReader = subtracted==null ? null : new LongReader(subtracted)) {
+			for (final Path p : inputs) readers.add(new LongReader(p));
+			boolean isFirst = true;
+			long last = 0;
+			while (true) {
+				LongReader minReader = null;
+				for (final LongReader r : readers) {
+					if (r.hasNext() && (minReader==null || r.current() < minReader.current())) minReader = r;
+				}
+				if (minReader == null) break;
+				final long value = minReader.current();
+				minReader.advance();
+				if (!isFirst && value == last) continue;
+				isFirst = false;
+				last = value;
+				if (subtractedReader != null) {
+					while (subtractedReader.hasNext() && subtractedReader.current() < value) {
+						subtractedReader.advance();
+					}
+					if (subtractedReader.hasNext() && subtractedReader.current() == value) continue;
+				}
+				writer.write(value);
+			}
+			return writer.count();
+		} finally {
+			for (final LongReader r : readers) r.close();
+		}
+	}
+
+	private Path newFile() throws IOException {
+		return Files.createTempFile(directory, "external-", ".bin");
+	}
+
+	/** A sequential reader of a file of longs. */
+	private static final class LongReader implements Closeable {
+		LongReader(Path path) throws IOException {
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+			buffer.flip();
+			advance();
+		}
+
+		boolean hasNext() {
+			return hasNext;
+		}
+
+		/** Return the current value. Valid only if {@link #hasNext()} returns true. */
+		long current() {
+			return current;
+		}
+
+		void advance() throws IOException {
+			if (!buffer.hasRemaining()) {
+				buffer.clear();
+				do {
+					if (channel.read(buffer) < 0) break;
+				} while (buffer.position() % 8 != 0);
+				buffer.flip();
+			}
+			hasNext = buffer.hasRemaining();
+			if (hasNext) current = buffer.getLong();
+		}
+
+		@Override public void close() throws IOException {
+			channel.close();
+		}
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+		private boolean hasNext;
+		private long current;
+	}
+
+	/** A sequential writer of a file of longs. */
+	private static final class LongWriter implements Closeable {
+		LongWriter(Path path) throws IOException {
+			channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		void write(long value) throws IOException {
+			if (!buffer.hasRemaining()) flush();
+			buffer.putLong(value);
+			++count;
+		}
+
+		long count() {
+			return count;
+		}
+
+		private void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) channel.write(buffer);
+			buffer.clear();
+		}
+
+		@Override public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+		private long count;
+	}
+
+	/** An exclusive limit on the solution length. */
+	private static final int MAX_COST = 256;
+	/** The maximum number of runs merged at once. */
+	private static final int FAN_IN = 32;
+	private static final int BUFFER_BYTES = 1 << 16;
+
+	private final B startBoard;
+	private final B endBoard;
+	private final B alternativeEndBoard;
+	private final Heuristic<B> heuristic;
+	private final Path directory;
+	private final Reporter reporter;
+
+	/** The codes collected in memory before getting written into a run. */
+	private final long[] run;
+	private int runSize;
+
+	private int nextBound;
+	private B solution;
+	private long expansions;
+	private long maxLayerSize;
+}
@@ -0,0 +1,47 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
+import junit.framework.TestCase;
+
+public class ExternalSolverTest extends TestCase {
+	@Override protected void setUp() throws Exception {
+		directory = Files.createTempDirectory("external");
+	}
+
+	@Override protected void tearDown() throws Exception {
+		MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+	}
+
+	public void testAgainstIda() throws Exception {
+		final Random random = new Random(42);
+		final FifteenHeuristic heuristic = new ManhattanHeuristic(GOAL);
+		for (int i=0; i<10; ++i) {
+			final FifteenBoard start = randomWalk(random, 10 + 3*i);
+			final int expected = FifteenIdaSolver.create(start, heuristic, Reporter.quiet()).solve();
+			// A tiny run length forces many runs and multiple merge passes.
+			final ExternalSolver<FifteenBoard> solver =
+					ExternalSolver.create(start, GOAL, heuristic, directory, 7, Reporter.quiet());
+			assertEquals(expected, solver.solve());
+			assertEquals(0, directory.toFile().list().length);
+		}
+	}
+
+	public void testAlternative() throws Exception {
+		final FifteenBoard start = randomWalk(new Random(0), 20).alternative();
+		final int expected = FifteenIdaSolver.create(start, GOAL, Reporter.quiet()).solve();
+		final ExternalSolver<FifteenBoard> solver =
+				ExternalSolver.create(start, GOAL, GOAL.distanceHeuristic(), directory, 1000, Reporter.quiet());
+		assertEquals(expected, solver.solve());
+	}
+
+	private Path directory;
+}
@@ -0,0 +1,175 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static maaartin.pazl.Boards.GOAL;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+import de.grajcar.dout.Dout;
+
+/**
+ * Solve many boards read from a file containing one board per line in a format accepted by
+ * {@link FifteenBoard#from(String)}. Empty lines and lines starting with '#' get ignored.
+ *
+ * <p>The arguments are the input file, the output file, the engine ("ida" or "astar"), the name of a
+ * {@link FifteenHeuristicKind} and the number of threads (defaulting to the number of available processors).
+ *
+ * <p>Every finished instance gets written immediately as a tab-separated line containing the line number, the board,
+ * the solution length, the number of nodes and the time in milliseconds, so the output is in the completion order.
+ * An instance which can't be parsed or solved gets a line containing "ERROR" and the message instead.
+ * The heuristics get created once and shared by all threads, the A* engine reuses its collections per thread.
+ */
+public class FifteenBatchSolver {
+	FifteenBatchSolver(boolean useAStar, final FifteenHeuristicKind heuristicKind, int threads) {
+		checkArgument(threads > 0);
+		this.useAStar = useAStar;
+		this.threads = threads;
+		heuristic = Suppliers.memoize(new Supplier<FifteenHeuristic>() {
+			@Override public FifteenHeuristic get() {
+				return heuristicKind.create(GOAL);
+			}
+		});
+		alternativeHeuristic = Suppliers.memoize(new Supplier<FifteenHeuristic>() {
+			@Override public FifteenHeuristic get() {
+				return heuristicKind.create(GOAL.alternative());
+			}
+		});
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Dout.a("STARTED");
+		checkArgument(args.length >= 2, "Usage: input output [ida|astar] [heuristic] [threads]");
+		final boolean useAStar = args.length>2 && args[2].equals("astar");
+		final FifteenHeuristicKind heuristicKind =
+				args.length>3 ? FifteenHeuristicKind.valueOf(args[3]) : FifteenHeuristicKind.MANHATTAN;
+		final int threads = args.length>4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+		final FifteenBatchSolver batchSolver = new FifteenBatchSolver(useAStar, heuristicKind, threads);
+		try (BufferedReader input = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+				Writer output = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+			final long start = System.nanoTime();
+			final long count = batchSolver.solveAll(input, output);
+			final long nanos = System.nanoTime() - start;
+			System.out.format("%d instances in %.3f s, %.2f instances/s\n",
+					count, 1e-9 * nanos, 1e9 * count / nanos);
+		}
+		Dout.a("DONE");
+	}
+
+	/**
+	 * Solve all boards from {@code input}, write the results to {@code output} and return the number of boards.
+	 * When writing a result fails, no more boards get started and the failure gets thrown
+	 * after the running ones finish.
+	 */
+	long solveAll(BufferedReader input, Writer output) throws IOException, InterruptedException {
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		// Limit the number of waiting instances, so that the input gets streamed rather than read at once.
+		final Semaphore permits = new Semaphore(QUEUED_PER_THREAD * threads);
+		final AtomicReference<IOException> writeFailure = new AtomicReference<IOException>();
+		long count = 0;
+		try {
+			int lineNumber = 0;
+			for (String line; writeFailure.get() == null && (line = input.readLine()) != null; ) {
+				++lineNumber;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) continue;
+				permits.acquire();
+				executor.execute(newTask(lineNumber, line, output, permits, writeFailure));
+				++count;
+			}
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+		if (writeFailure.get() != null) throw new IOException("Writing a result failed", writeFailure.get());
+		output.flush();
+		return count;
+	}
+
+	private Runnable newTask(final int lineNumber, final String line, final Writer output, final Semaphore permits,
+			final AtomicReference<IOException> writeFailure) {
+		return new Runnable() {
+			@Override public void run() {
+				try {
+					write(output, lineNumber + "\t" + solve(line));
+				} catch (final IOException e) {
+					writeFailure.compareAndSet(null, e);
+				} finally {
+					permits.release();
+				}
+			}
+		};
+	}
+
+	/** Return the tab-separated result for the given line, or the error if it can't be parsed or solved. */
+	private String solve(String line) {
+		try {
+			return solve(FifteenBoard.from(line));
+		} catch (final IllegalArgumentException e) {
+			return line + "\tERROR\t" + e.getMessage();
+		} catch (final RuntimeException e) {
+			// E.g., a pattern database which can't be loaded.
+			return line + "\tERROR\t" + e;
+		}
+	}
+
+	private String solve(FifteenBoard board) {
+		final long start = System.nanoTime();
+		final FifteenHeuristic h = board.canReach(GOAL) ? heuristic.get() : alternativeHeuristic.get();
+		final int length;
+		final long nodes;
+		if (useAStar) {
+			final Buffers buffers = this.buffers.get();
+			final Solver<FifteenBoard> solver =
+					Solver.create(board, h.goal(), h, Reporter.quiet(), buffers.closedSet, buffers.openList);
+			length = solver.solve();
+			nodes = solver.steps();
+		} else {
+			final FifteenIdaSolver solver = FifteenIdaSolver.create(board, h, Reporter.quiet());
+			length = solver.solve();
+			nodes = solver.nodes();
+		}
+		final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		return board + "\t" + length + "\t" + nodes + "\t" + millis;
+	}
+
+	private static void write(Writer output, String result) throws IOException {
+		synchronized (output) {
+			output.write(result);
+			output.write('\n');
+			output.flush();
+		}
+	}
+
+	/** The collections of the A* engine, reused for all instances solved by a thread. */
+	private static final class Buffers {
+		final ClosedSet<FifteenBoard> closedSet = Solver.newClosedSet(GOAL);
+		final OpenList<FifteenBoard> openList = Solver.newOpenList(GOAL);
+	}
+
+	private static final int QUEUED_PER_THREAD = 4;
+
+	private final boolean useAStar;
+	private final int threads;
+	/** The heuristic for {@link Boards#GOAL}, shared by all threads. */
+	private final Supplier<FifteenHeuristic> heuristic;
+	/** The heuristic for the alternative of {@link Boards#GOAL}, created only when needed. */
+	private final Supplier<FifteenHeuristic> alternativeHeuristic;
+	private final ThreadLocal<Buffers> buffers = new ThreadLocal<Buffers>() {
+		@Override protected Buffers initialValue() {
+			return new Buffers();
+		}
+	};
+}
@@ -0,0 +1,75 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import junit.framework.TestCase;
+
+public class FifteenBatchSolverTest extends TestCase {
+	@SuppressWarnings("boxing") public void testSolveAll() throws Exception {
+		final Random random = new Random(42);
+		final List<String> lines = Lists.newArrayList("# comment", "");
+		final Map<Integer, Integer> expected = Maps.newHashMap();
+		for (int i=0; i<10; ++i) {
+			FifteenBoard board = randomWalk(random, 10 + 3*i);
+			if (i%3 == 0) board = board.alternative();
+			lines.add(board.toString());
+			expected.put(lines.size(), FifteenIdaSolver.create(board, GOAL, Reporter.quiet()).solve());
+		}
+		lines.add("0123_4567_89AB_CDEE");
+		for (final boolean useAStar : new boolean[] {false, true}) {
+			final StringWriter output = new StringWriter();
+			final FifteenBatchSolver batchSolver =
+					new FifteenBatchSolver(useAStar, FifteenHeuristicKind.MANHATTAN, 3);
+			final BufferedReader input = new BufferedReader(new StringReader(Joiner.on('\n').join(lines)));
+			assertEquals(11, batchSolver.solveAll(input, output));
+			int errors = 0;
+			for (final String line : Splitter.on('\n').omitEmptyStrings().split(output.toString())) {
+				final List<String> fields = Splitter.on('\t').splitToList(line);
+				if (fields.get(2).equals("ERROR")) {
+					++errors;
+					continue;
+				}
+				assertEquals(expected.get(Integer.parseInt(fields.get(0))), Integer.valueOf(fields.get(2)));
+			}
+			assertEquals(1, errors);
+		}
+	}
+
+	public void testWriteFailure() throws Exception {
+		final Writer output = new Writer() {
+			@Override public void write(char[] buffer, int offset, int length) throws IOException {
+				throw new IOException("Disk full");
+			}
+
+			@Override public void flush() {
+				// Nothing to do.
+			}
+
+			@Override public void close() {
+				// Nothing to do.
+			}
+		};
+		final FifteenBatchSolver batchSolver = new FifteenBatchSolver(false, FifteenHeuristicKind.MANHATTAN, 2);
+		try {
+			batchSolver.solveAll(new BufferedReader(new StringReader(GOAL + "\n" + GOAL.alternative())), output);
+			fail();
+		} catch (final IOException e) {
+			assertEquals("Disk full", e.getCause().getMessage());
+		}
+	}
+}
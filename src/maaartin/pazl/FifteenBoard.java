@@ -9,6 +9,7 @@ import java.util.regex.Pattern;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
 import com.google.common.primitives.UnsignedLongs;
 
@@ -62,17 +63,17 @@ public class FifteenBoard extends Board<FifteenBoard> {
 				result = (result << 4) + n;
 			}
 		} else {
-			return UnsignedLongs.parseUnsignedLong(input.replaceAll("_", ""));
+			return UnsignedLongs.parseUnsignedLong(input.replaceAll("_", ""), 16);
 		}
 		return result;
 	}
 
-	@VisibleForTesting static int indexToRow(int index) {
+	static int indexToRow(int index) {
 		assert 0 <= index && index < INDEX_LIMIT;
 		return index & 3;
 	}
 
-	@VisibleForTesting static int indexToCol(int index) {
+	static int indexToCol(int index) {
 		assert 0 <= index && index < INDEX_LIMIT;
 		return index >> 2;
 	}
@@ -83,6 +84,24 @@ public class FifteenBoard extends Board<FifteenBoard> {
 		return 4*col + row;
 	}
 
+	/**
+	 * Return the four nibbles of {@code data} belonging to the given column,
+	 * i.e., to the indexes {@code toIndex(col, 0)} to {@code toIndex(col, 3)}, as a 16-bit number.
+	 */
+	static int colNibbles(long data, int col) {
+		return (int) (data >>> 16*col) & 0xFFFF;
+	}
+
+	/**
+	 * Return the four nibbles of {@code data} belonging to the given row,
+	 * i.e., to the indexes {@code toIndex(0, row)} to {@code toIndex(3, row)}, as a 16-bit number.
+	 */
+	static int rowNibbles(long data, int row) {
+		long result = (data >>> 4*row) & 0x000F_000F_000F_000FL;
+		result = (result | (result >>> 12)) & 0x0000_00FF_0000_00FFL;
+		return (int) (result | (result >>> 24)) & 0xFFFF;
+	}
+
 	@VisibleForTesting static long dual(long data) {
 		long result = 0;
 		for (int index=0; index<SIZE*SIZE; ++index) result += (long) index << (4 * get(data, index));
@@ -123,12 +142,22 @@ public class FifteenBoard extends Board<FifteenBoard> {
 	}
 
 	@Override public int distanceTo(FifteenBoard other) {
+		return manhattanDistance(pieceToIndex, other.pieceToIndex);
+	}
+
+	/** Return the incremental equivalent of {@link #distanceTo(FifteenBoard)}. */
+	@Override ManhattanHeuristic distanceHeuristic() {
+		return new ManhattanHeuristic(this);
+	}
+
+	/** Return the manhattan distance between two boards given by their {@link #pieceToIndex} fields. */
+	static int manhattanDistance(long pieceToIndex1, long pieceToIndex2) {
 		// Every pair of bits in x and y is one coordinate.
 		// The coordinates of the empty space don't matter and therefore get excluded via & ~15.
 		// For all others, we compute the sum of absolute values of their differences.
 		// See http://codereview.stackexchange.com/a/86907/14363.
-		final long x = pieceToIndex  & ~15;
-		final long y = other.pieceToIndex & ~15;
+		final long x = pieceToIndex1 & ~15;
+		final long y = pieceToIndex2 & ~15;
 		final long xor = x^y;
 		// High bit per pair will contain whether the pair is 3, low bit is garbled.
 		final long is3 = xor & (xor << 1);
@@ -149,20 +178,76 @@ public class FifteenBoard extends Board<FifteenBoard> {
 	}
 
 	@Override public Collection<FifteenBoard> children() {
-		return addChildrenTo(Lists.<FifteenBoard>newArrayListWithCapacity(4));
+		final int emptyIndex = pieceToIndex(0);
+		final int[] neighbors = NEIGHBORS[emptyIndex];
+		final List<FifteenBoard> result = Lists.newArrayListWithCapacity(neighbors.length);
+		for (final int index : neighbors) result.add(swap(emptyIndex, index));
+		return result;
 	}
 
-	private Collection<FifteenBoard> addChildrenTo(Collection<FifteenBoard> result) {
+	@Override public int childCodes(long[] codes) {
 		final int emptyIndex = pieceToIndex(0);
-		final int col = indexToCol(emptyIndex);
-		final int row = indexToRow(emptyIndex);
-		if (col > 0) result.add(swap(emptyIndex, emptyIndex-4));
-		if (col < SIZE-1) result.add(swap(emptyIndex, emptyIndex+4));
-		if (row > 0) result.add(swap(emptyIndex, emptyIndex-1));
-		if (row < SIZE-1) result.add(swap(emptyIndex, emptyIndex+1));
+		final int[] neighbors = NEIGHBORS[emptyIndex];
+		for (int i=0; i<neighbors.length; ++i) {
+			// As in swap, but only for indexToPiece and knowing that one of the pieces is empty.
+			final int index = neighbors[i];
+			final long piece = indexToPiece(index);
+			codes[i] = indexToPiece ^ (piece << 4*index) ^ (piece << 4*emptyIndex);
+		}
+		return neighbors.length;
+	}
+
+	@Override public FifteenBoard child(long childCode) {
+		final int emptyIndex = pieceToIndex(0);
+		// The code differs in the nibbles of the empty field and of the moved piece.
+		final long diff = (childCode ^ indexToPiece) & ~(15L << 4*emptyIndex);
+		final int index = Long.numberOfTrailingZeros(diff) >> 2;
+		final FifteenBoard result = swap(emptyIndex, index);
+		assert result.indexToPiece == childCode && Ints.contains(NEIGHBORS[emptyIndex], index);
 		return result;
 	}
 
+	@Override public int indexInChild(long childCode) {
+		final int emptyIndex = pieceToIndex(0);
+		// As in child, the moved piece was at the empty field of the child.
+		final long diff = (childCode ^ indexToPiece) & ~(15L << 4*emptyIndex);
+		final int childEmptyIndex = Long.numberOfTrailingZeros(diff) >> 2;
+		return Ints.indexOf(NEIGHBORS[childEmptyIndex], emptyIndex);
+	}
+
+	/**
+	 * Return the children reachable by the moves the automaton allows in the given state
+	 * and store the state after each move in the corresponding element of {@code childStates}.
+	 * Starting with {@link MoveAutomaton#START}, all boards stay reachable by a shortest path.
+	 *
+	 * @param childStates an array of length at least 4
+	 */
+	List<FifteenBoard> children(MoveAutomaton automaton, int state, int[] childStates) {
+		assert automaton.size() == SIZE;
+		final List<FifteenBoard> result = Lists.newArrayListWithCapacity(4);
+		final int emptyIndex = pieceToIndex(0);
+		for (final int index : NEIGHBORS[emptyIndex]) {
+			final int childState = automaton.next(state, automaton.direction(emptyIndex, index));
+			if (childState == MoveAutomaton.PRUNED) continue;
+			childStates[result.size()] = childState;
+			result.add(swap(emptyIndex, index));
+		}
+		return result;
+	}
+
+	/**
+	 * Return the piece moved to get from {@code this} to {@code child}, which must be a child.
+	 * A sequence of such pieces is the usual notation of a solution.
+	 */
+	int movedPiece(FifteenBoard child) {
+		final int emptyIndex = pieceToIndex(0);
+		final int childEmptyIndex = child.pieceToIndex(0);
+		final boolean isChild = Ints.contains(NEIGHBORS[emptyIndex], childEmptyIndex)
+				&& swap(emptyIndex, childEmptyIndex).equals(child);
+		checkArgument(isChild, "Not a child: %s", child);
+		return child.indexToPiece(emptyIndex);
+	}
+
 	@Override public FifteenBoard alternative() {
 		// Swap the first two non-empty positions.
 		final int index1 = indexToPiece(0) == 0 ? 2 : 0;
@@ -170,12 +255,51 @@ public class FifteenBoard extends Board<FifteenBoard> {
 		return swap(index1, index2);
 	}
 
+	/**
+	 * Return true if {@code this} can be transformed into {@code other} by a sequence of moves.
+	 * This is the case for exactly one of {@code other} and {@code other.alternative()}.
+	 */
+	@Override public boolean canReach(FifteenBoard other) {
+		return parity(indexToPiece) == parity(other.indexToPiece);
+	}
+
+	/**
+	 * Return the parity of the permutation combined with the parity of the empty field position.
+	 * Every move is a transposition moving the empty field by one, so it keeps the result unchanged.
+	 */
+	@VisibleForTesting static int parity(long indexToPiece) {
+		int result = 0;
+		int visited = 0;
+		for (int index=0; index<INDEX_LIMIT; ++index) {
+			// Every cycle of length n consists of n-1 transpositions, so we count all but the first element.
+			for (int i=get(indexToPiece, index); (visited & (1<<i)) == 0; i = get(indexToPiece, i)) {
+				visited |= 1 << i;
+				if (i != index) ++result;
+			}
+		}
+		final int emptyIndex = get(dual(indexToPiece), 0);
+		return (result + indexToRow(emptyIndex) + indexToCol(emptyIndex)) & 1;
+	}
+
+	@Override public boolean hasLongEncoding() {
+		return true;
+	}
+
+	/** Return {@link #indexToPiece}, which is never zero as at most one piece is empty. */
+	@Override public long toLong() {
+		return indexToPiece;
+	}
+
+	@Override public FifteenBoard fromLong(long code) {
+		return FifteenBoard.from(code);
+	}
+
 	/**
 	 * Swap the two pieces at the indexes given by the arguments.
 	 *
 	 * <p>This is a valid move iff the indexes correspond to neighboring positions and one of the positions is empty.
 	 */
-	private FifteenBoard swap(int index1, int index2) {
+	@VisibleForTesting FifteenBoard swap(int index1, int index2) {
 		final long piece1 = indexToPiece(index1);
 		final long piece2 = indexToPiece(index2);
 		final long pieceXor = piece1 ^ piece2;
@@ -185,6 +309,21 @@ public class FifteenBoard extends Board<FifteenBoard> {
 		return new FifteenBoard(childIndexToPiece, childPieceToIndex);
 	}
 
+	@SuppressWarnings("boxing") private static int[][] computeNeighbors() {
+		final int[][] result = new int[INDEX_LIMIT][];
+		for (int index=0; index<INDEX_LIMIT; ++index) {
+			final int col = indexToCol(index);
+			final int row = indexToRow(index);
+			final List<Integer> neighbors = Lists.newArrayList();
+			if (col > 0) neighbors.add(index-4);
+			if (col < SIZE-1) neighbors.add(index+4);
+			if (row > 0) neighbors.add(index-1);
+			if (row < SIZE-1) neighbors.add(index+1);
+			result[index] = Ints.toArray(neighbors);
+		}
+		return result;
+	}
+
 	@VisibleForTesting int indexToPiece(int index) {
 		return get(indexToPiece, index);
 	}
@@ -203,6 +342,9 @@ public class FifteenBoard extends Board<FifteenBoard> {
 	private static final int SIZE = 4;
 	private static final int INDEX_LIMIT = SIZE*SIZE;
 
+	/** The indexes neighboring the given index. */
+	static final int[][] NEIGHBORS = computeNeighbors();
+
 	@VisibleForTesting final long indexToPiece;
 	@VisibleForTesting final long pieceToIndex;
 }
@@ -48,6 +48,14 @@ public class FifteenBoardTest extends TestCase {
 		}
 	}
 
+	public void testFromString() {
+		for (int i=0; i<10; ++i) {
+			final FifteenBoard board = generator.newRandomBoard();
+			assertEquals(board, FifteenBoard.from(board.toString()));
+		}
+		assertEquals(STANDARD_BOARD, FifteenBoard.from("0 1 2 3 4 5 6 7 8 9 10 11 12 13 14 15"));
+	}
+
 	public void testDual() {
 		for (int i=0; i<10; ++i) {
 			final long indexToPiece = generator.newRandomBoardAsLong();
@@ -92,6 +100,20 @@ public class FifteenBoardTest extends TestCase {
 		}
 	}
 
+	public void testCanReach() {
+		for (int i=0; i<10; ++i) {
+			final FifteenBoard b = generator.newRandomBoard();
+			assertTrue(b.canReach(b));
+			assertFalse(b.canReach(b.alternative()));
+			for (final FifteenBoard child : b.children()) {
+				assertTrue(b.canReach(child));
+				assertTrue(child.canReach(b));
+			}
+			final FifteenBoard b2 = generator.newRandomBoard();
+			assertTrue(b.canReach(b2) ^ b.canReach(b2.alternative()));
+		}
+	}
+
 	public void testChildren() {
 		final FifteenBoard board = STANDARD_BOARD;
 		assertEquals(0, board.distanceTo(board));
@@ -118,6 +140,22 @@ public class FifteenBoardTest extends TestCase {
 		}
 	}
 
+	public void testChildCodes() {
+		final long[] codes = new long[Board.MAX_CHILDREN];
+		for (int i=0; i<100; ++i) {
+			final FifteenBoard board = generator.newRandomBoard();
+			final List<FifteenBoard> children = Lists.newArrayList(board.children());
+			assertEquals(children.size(), board.childCodes(codes));
+			for (int j=0; j<children.size(); ++j) {
+				assertEquals(children.get(j).toLong(), codes[j]);
+				assertEquals(children.get(j), board.child(codes[j]));
+				assertEquals(children.get(j).pieceToIndex, board.child(codes[j]).pieceToIndex);
+				assertEquals(Lists.newArrayList(children.get(j).children()).indexOf(board),
+						board.indexInChild(codes[j]));
+			}
+		}
+	}
+
 	private final RandomBoardGenerator generator = new RandomBoardGenerator();
 
 	private static final FifteenBoard STANDARD_BOARD = FifteenBoard.from(0x0123_4567_89AB_CDEFL);
@@ -0,0 +1,103 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.io.Resources;
+
+/**
+ * A fixed corpus of instances of the {@link FifteenBoard} with known optimal solution lengths,
+ * stored in the resource {@value #RESOURCE} next to this class.
+ *
+ * <p>It contains Korf's 100 random instances from "Depth-first iterative-deepening" (1985), named "korf-001" to
+ * "korf-100". They got converted to the goal used here by rotating the board by 180 degrees and replacing every
+ * piece {@code p} by {@code 16-p}, which keeps the solution lengths. They need about 53 moves on average and are too
+ * hard for the weaker heuristics.
+ *
+ * <p>It also contains {@value #WALKS_PER_LENGTH} instances per length in {@link #WALK_LENGTHS} obtained by seeded
+ * random walks from the goal by {@link #randomWalks()}, e.g., "walk-040-2" for the third walk of length 40.
+ * They're much easier and allow quick runs.
+ *
+ * <p>Every line contains the name, the optimal solution length and the board in the format of
+ * {@link FifteenBoard#toString()}, separated by tabs. Empty lines and lines starting with '#' get ignored.
+ */
+final class FifteenCorpus {
+	/** An instance of the corpus. */
+	@Getter @RequiredArgsConstructor static final class Instance {
+		@Override public String toString() {
+			return name + "\t" + length + "\t" + board;
+		}
+
+		private final String name;
+		private final FifteenBoard board;
+		/** The length of an optimal solution. */
+		private final int length;
+	}
+
+	private FifteenCorpus() {
+	}
+
+	/** Return all instances of the corpus, in the order of the resource. */
+	static List<Instance> load() {
+		try {
+			return parse(Resources.readLines(
+					Resources.getResource(FifteenCorpus.class, RESOURCE), StandardCharsets.UTF_8));
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/** Parse the lines in the format of the corpus. */
+	static List<Instance> parse(Iterable<String> lines) {
+		final List<Instance> result = Lists.newArrayList();
+		for (String line : lines) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) continue;
+			final List<String> fields = FIELD_SPLITTER.splitToList(line);
+			checkArgument(fields.size() == 3, "Malformed line: %s", line);
+			final int length = Integer.parseInt(fields.get(1));
+			checkArgument(length >= 0, "Negative length: %s", line);
+			result.add(new Instance(fields.get(0), FifteenBoard.from(fields.get(2)), length));
+		}
+		return result;
+	}
+
+	/**
+	 * Return the starting boards of the random walk instances, in the order of the corpus.
+	 * Every walk starts from the goal and never undoes its previous move, but its solution may still be much
+	 * shorter.
+	 * As {@link Random} is fully specified, the result is the same everywhere.
+	 */
+	static List<FifteenBoard> randomWalks() {
+		final Random random = new Random(WALK_SEED);
+		final List<FifteenBoard> result = Lists.newArrayList();
+		for (final int walkLength : WALK_LENGTHS) {
+			for (int i=0; i<WALKS_PER_LENGTH; ++i) {
+				result.add(Boards.randomWalk(Boards.GOAL, random, walkLength, false));
+			}
+		}
+		return result;
+	}
+
+	/** Return the name of the {@code i}-th random walk of the given length. */
+	@SuppressWarnings("boxing") static String walkName(int walkLength, int i) {
+		return String.format("walk-%03d-%d", walkLength, i);
+	}
+
+	static final String RESOURCE = "fifteen-corpus.txt";
+
+	static final int[] WALK_LENGTHS = {10, 20, 30, 40, 50, 60, 70, 80, 100, 150};
+	static final int WALKS_PER_LENGTH = 4;
+	private static final long WALK_SEED = 20151;
+
+	private static final Splitter FIELD_SPLITTER = Splitter.on('\t').trimResults();
+}
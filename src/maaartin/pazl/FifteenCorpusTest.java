@@ -0,0 +1,83 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import junit.framework.TestCase;
+
+public class FifteenCorpusTest extends TestCase {
+	public void testLoad() {
+		final List<FifteenCorpus.Instance> instances = FifteenCorpus.load();
+		assertEquals(100 + FifteenCorpus.WALK_LENGTHS.length * FifteenCorpus.WALKS_PER_LENGTH, instances.size());
+		final Set<String> names = Sets.newHashSet();
+		final ManhattanHeuristic manhattan = new ManhattanHeuristic(GOAL);
+		int korfLengths = 0;
+		for (final FifteenCorpus.Instance instance : instances) {
+			assertTrue(names.add(instance.name()));
+			final FifteenBoard board = instance.board();
+			assertTrue(board.canReach(GOAL));
+			// Every move changes the manhattan distance by one.
+			final int distance = manhattan.distance(board);
+			assertTrue(distance <= instance.length());
+			assertEquals(distance % 2, instance.length() % 2);
+			if (instance.name().startsWith("korf-")) korfLengths += instance.length();
+		}
+		// The average length of Korf's instances is 53.05.
+		assertEquals(5305, korfLengths);
+		assertEquals("korf-001\t57\tD68C_FE0A_B745_9132", instances.get(0).toString());
+	}
+
+	public void testRandomWalks() {
+		final List<FifteenBoard> expected = FifteenCorpus.randomWalks();
+		final List<FifteenBoard> actual = Lists.newArrayList();
+		final List<String> expectedNames = Lists.newArrayList();
+		final List<String> actualNames = Lists.newArrayList();
+		for (final int walkLength : FifteenCorpus.WALK_LENGTHS) {
+			for (int i=0; i<FifteenCorpus.WALKS_PER_LENGTH; ++i) {
+				expectedNames.add(FifteenCorpus.walkName(walkLength, i));
+			}
+		}
+		for (final FifteenCorpus.Instance instance : FifteenCorpus.load()) {
+			if (!instance.name().startsWith("walk-")) continue;
+			actual.add(instance.board());
+			actualNames.add(instance.name());
+		}
+		assertEquals(expectedNames, actualNames);
+		assertEquals(expected, actual);
+	}
+
+	/** Verify the lengths of all instances solvable in a few seconds. */
+	public void testLengths() {
+		final FifteenHeuristic heuristic = new LinearConflictHeuristic(GOAL);
+		int count = 0;
+		for (final FifteenCorpus.Instance instance : FifteenCorpus.load()) {
+			final boolean isEasy = instance.name().startsWith("korf-") ? instance.length() <= 42
+					: !instance.name().startsWith("walk-150");
+			if (!isEasy) continue;
+			final FifteenIdaSolver solver = FifteenIdaSolver.create(instance.board(), heuristic, Reporter.quiet());
+			assertEquals(instance.name(), instance.length(), solver.solve());
+			++count;
+		}
+		assertEquals(40, count);
+	}
+
+	public void testParse() {
+		final List<FifteenCorpus.Instance> instances =
+				FifteenCorpus.parse(Lists.newArrayList("# comment", "", " test\t0\t1234_5678_9ABC_DEF0 "));
+		assertEquals(1, instances.size());
+		assertEquals("test", instances.get(0).name());
+		assertEquals(GOAL, instances.get(0).board());
+		assertEquals(0, instances.get(0).length());
+		try {
+			FifteenCorpus.parse(Lists.newArrayList("test\t1234_5678_9ABC_DEF0"));
+			fail();
+		} catch (final IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+}
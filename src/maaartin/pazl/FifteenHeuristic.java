@@ -0,0 +1,38 @@
+package maaartin.pazl;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A {@link Heuristic} for the {@link FifteenBoard}, which can be also evaluated on the packed longs,
+ * so that engines working without board objects can use it, too.
+ */
+@RequiredArgsConstructor abstract class FifteenHeuristic implements Heuristic<FifteenBoard> {
+	@Override public final int distance(FifteenBoard board) {
+		return distance(board.indexToPiece, board.pieceToIndex);
+	}
+
+	@Override public final int childDistance(FifteenBoard parent, int parentDistance, FifteenBoard child) {
+		final int from = child.pieceToIndex(0);
+		final int to = parent.pieceToIndex(0);
+		return childDistance(parentDistance, parent.indexToPiece(from), from, to,
+				child.indexToPiece, child.pieceToIndex);
+	}
+
+	/** Return a lower bound for the board given by {@link FifteenBoard#indexToPiece} and its dual. */
+	abstract int distance(long indexToPiece, long pieceToIndex);
+
+	/**
+	 * Return the distance of the child obtained by moving {@code piece} from the index {@code from}
+	 * to the empty field at {@code to}, given the distance of its parent.
+	 * The child is given by {@link FifteenBoard#indexToPiece} and its dual.
+	 *
+	 * <p>This implementation simply recomputes the distance. Subclasses should provide an incremental computation.
+	 */
+	int childDistance(int parentDistance, int piece, int from, int to,
+			long childIndexToPiece, long childPieceToIndex) {
+		return distance(childIndexToPiece, childPieceToIndex);
+	}
+
+	@Getter private final FifteenBoard goal;
+}
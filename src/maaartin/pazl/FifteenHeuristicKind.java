@@ -0,0 +1,96 @@
+package maaartin.pazl;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * The available heuristics for the {@link FifteenBoard}, allowing to choose one by name.
+ *
+ * <p>The pattern databases get stored in the directory given by the system property
+ * {@value #PDB_DIRECTORY_PROPERTY}.
+ */
+enum FifteenHeuristicKind {
+	MANHATTAN {
+		@Override FifteenHeuristic create(FifteenBoard goal) {
+			return new ManhattanHeuristic(goal);
+		}
+	},
+	LINEAR_CONFLICT {
+		@Override FifteenHeuristic create(FifteenBoard goal) {
+			return new LinearConflictHeuristic(goal);
+		}
+	},
+	WALKING_DISTANCE {
+		@Override FifteenHeuristic create(FifteenBoard goal) {
+			return new WalkingDistanceHeuristic(goal);
+		}
+	},
+	PDB_555 {
+		@Override FifteenHeuristic create(FifteenBoard goal) {
+			return loadOrBuild(goal, PatternDatabaseHeuristic.PARTITION_555);
+		}
+	},
+	PDB_663 {
+		@Override FifteenHeuristic create(FifteenBoard goal) {
+			return loadOrBuild(goal, PatternDatabaseHeuristic.PARTITION_663);
+		}
+	},
+	/** The maximum of {@link #PDB_555} for the board and its reflection, see {@link SymmetricHeuristic}. */
+	PDB_555_REFLECTED {
+		@Override FifteenHeuristic create(FifteenBoard goal) {
+			return new SymmetricHeuristic(loadOrBuild(goal, PatternDatabaseHeuristic.PARTITION_555), false);
+		}
+	},
+	/** The maximum of {@link #PDB_663} for the board and its reflection, see {@link SymmetricHeuristic}. */
+	PDB_663_REFLECTED {
+		@Override FifteenHeuristic create(FifteenBoard goal) {
+			return new SymmetricHeuristic(loadOrBuild(goal, PatternDatabaseHeuristic.PARTITION_663), false);
+		}
+	},
+	/**
+	 * The maximum of {@link #PDB_555} for the board, its reflection and its dual, see {@link SymmetricHeuristic}.
+	 * The dual saves some more nodes, but it costs more time than it saves,
+	 * so this is slower than {@link #PDB_555_REFLECTED}.
+	 */
+	PDB_555_SYMMETRIC {
+		@Override FifteenHeuristic create(FifteenBoard goal) {
+			return new SymmetricHeuristic(loadOrBuild(goal, PatternDatabaseHeuristic.PARTITION_555), true);
+		}
+
+		@Override boolean isConsistent() {
+			return false;
+		}
+	},
+	/**
+	 * The maximum of {@link #PDB_663} for the board, its reflection and its dual, see {@link #PDB_555_SYMMETRIC}.
+	 */
+	PDB_663_SYMMETRIC {
+		@Override FifteenHeuristic create(FifteenBoard goal) {
+			return new SymmetricHeuristic(loadOrBuild(goal, PatternDatabaseHeuristic.PARTITION_663), true);
+		}
+
+		@Override boolean isConsistent() {
+			return false;
+		}
+	},
+	;
+
+	abstract FifteenHeuristic create(FifteenBoard goal);
+
+	/** Return true if the heuristic is consistent, which some engines like {@link FrontierSolver} need. */
+	boolean isConsistent() {
+		return true;
+	}
+
+	private static PatternDatabaseHeuristic loadOrBuild(FifteenBoard goal, List<int[]> partition) {
+		try {
+			return PatternDatabaseHeuristic.loadOrBuild(
+					goal, partition, Paths.get(System.getProperty(PDB_DIRECTORY_PROPERTY, "pdb")));
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	static final String PDB_DIRECTORY_PROPERTY = "maaartin.pazl.pdb";
+}
@@ -0,0 +1,144 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Iterative deepening A* for the {@link FifteenBoard}, working directly on the packed longs.
+ *
+ * <p>Moves get made and unmade in place using the xor trick from {@link FifteenBoard#swap},
+ * so that nothing gets allocated per node and the memory needed doesn't depend on the search depth
+ * (apart from the call stack, which is bounded by {@link #MAX_COST}).
+ *
+ * <p>The moves get pruned by a {@link MoveAutomaton}, which by default forbids just undoing the previous move.
+ */
+@RequiredArgsConstructor(access=AccessLevel.PRIVATE) final class FifteenIdaSolver {
+	/** Create a solver for {@code endBoard} or its {@link FifteenBoard#alternative()}, whichever is reachable. */
+	public static FifteenIdaSolver create(FifteenBoard startBoard, FifteenBoard endBoard, Reporter reporter) {
+		final FifteenBoard goal = startBoard.canReach(endBoard) ? endBoard : endBoard.alternative();
+		return create(startBoard, new ManhattanHeuristic(goal), reporter);
+	}
+
+	/** Create a solver for the goal of the given heuristic, which must be reachable. */
+	public static FifteenIdaSolver create(FifteenBoard startBoard, FifteenHeuristic heuristic, Reporter reporter) {
+		return create(startBoard, heuristic, null, reporter);
+	}
+
+	/**
+	 * Create a solver for the goal of the given heuristic, which must be reachable,
+	 * using the given transposition table, which may be shared with other solvers for the same goal.
+	 */
+	public static FifteenIdaSolver create(FifteenBoard startBoard, FifteenHeuristic heuristic,
+			TranspositionTable transpositionTable, Reporter reporter) {
+		return create(startBoard, heuristic, transpositionTable, NO_REVERSAL, reporter);
+	}
+
+	/**
+	 * Create a solver for the goal of the given heuristic, which must be reachable,
+	 * using the given optional transposition table and expanding only the moves allowed by the automaton.
+	 */
+	public static FifteenIdaSolver create(FifteenBoard startBoard, FifteenHeuristic heuristic,
+			TranspositionTable transpositionTable, MoveAutomaton automaton, Reporter reporter) {
+		checkArgument(startBoard.canReach(heuristic.goal()), "Unreachable goal");
+		checkArgument(automaton.size() == 4, "Wrong automaton: %s", automaton);
+		checkArgument(automaton.stateCount() <= TranspositionTable.MAX_CONTEXT + 1,
+				"Too many states: %s", automaton);
+		return new FifteenIdaSolver(startBoard, heuristic.goal(), heuristic, reporter,
+				transpositionTable, automaton);
+	}
+
+	/** Return the length of an optimal solution. */
+	int solve() {
+		indexToPiece = startBoard.indexToPiece;
+		pieceToIndex = startBoard.pieceToIndex;
+		nodes = 0;
+		final int futureCost = heuristic.distance(indexToPiece, pieceToIndex);
+		reporter.metrics().start(futureCost);
+		int threshold = futureCost;
+		while (true) {
+			checkState(threshold < MAX_COST, "Threshold too high: %s", threshold);
+			reporter.report(EventType.LOWER_BOUND, nodes, new Node<FifteenBoard>(startBoard, 0, threshold));
+			if (transpositionTable != null) transpositionTable.nextAge();
+			final int nextThreshold = search(0, futureCost, threshold, MoveAutomaton.START);
+			if (nextThreshold == FOUND) break;
+			threshold = nextThreshold;
+		}
+		reporter.metrics().solved(threshold);
+		reporter.report(EventType.DONE, nodes, new Node<FifteenBoard>(endBoard, threshold, 0));
+		return threshold;
+	}
+
+	/**
+	 * Search all descendants of the current board with total cost up to {@code threshold}.
+	 * Return {@link #FOUND} or the lowest total cost exceeding the threshold.
+	 *
+	 * @param state the state of the {@link #automaton} after the moves leading to the current board
+	 */
+	private int search(int pastCost, int futureCost, int threshold, int state) {
+		++nodes;
+		final int totalCost = pastCost + futureCost;
+		if (totalCost > threshold) return totalCost;
+		if (indexToPiece == endBoard.indexToPiece) return FOUND;
+		final boolean useTable = transpositionTable != null && threshold - totalCost >= TRANSPOSITION_MIN_SLACK;
+		if (useTable) {
+			// The bound proven for a board holds only for the paths allowed in the state, which is the context.
+			final int bound = transpositionTable.get(indexToPiece, state);
+			if (bound != TranspositionTable.ABSENT && pastCost + bound > threshold) return pastCost + bound;
+		}
+		int result = Integer.MAX_VALUE;
+		final int emptyIndex = (int) (pieceToIndex & 15);
+		for (final int index : FifteenBoard.NEIGHBORS[emptyIndex]) {
+			final int childState = automaton.next(state, automaton.direction(emptyIndex, index));
+			if (childState == MoveAutomaton.PRUNED) continue;
+			final int piece = (int) (indexToPiece >>> 4*index) & 15;
+			move(emptyIndex, index);
+			final int childFutureCost =
+					heuristic.childDistance(futureCost, piece, index, emptyIndex, indexToPiece, pieceToIndex);
+			final int t = search(pastCost + 1, childFutureCost, threshold, childState);
+			move(index, emptyIndex);
+			if (t == FOUND) return FOUND;
+			result = Math.min(result, t);
+		}
+		if (useTable) transpositionTable.put(indexToPiece, state, result - pastCost, threshold - totalCost);
+		return result;
+	}
+
+	/** Move the piece from {@code index} to the empty field at {@code emptyIndex}. This is self-inverse. */
+	private void move(int emptyIndex, int index) {
+		final long piece = (indexToPiece >>> 4*index) & 15;
+		indexToPiece ^= (piece << 4*index) ^ (piece << 4*emptyIndex);
+		final long indexXor = index ^ emptyIndex;
+		pieceToIndex ^= (indexXor << 4*piece) ^ indexXor;
+	}
+
+	/** An exclusive limit on the solution length. */
+	private static final int MAX_COST = 256;
+	private static final int FOUND = -1;
+	/** The automaton pruning just the moves undoing the previous move. */
+	private static final MoveAutomaton NO_REVERSAL = MoveAutomaton.generate(4, 2);
+	/**
+	 * The minimum difference between the threshold and the total cost of a board for using the transposition table.
+	 * Boards with less slack have tiny subtrees, so the table lookups would cost more than they save.
+	 */
+	private static final int TRANSPOSITION_MIN_SLACK = 2;
+
+	private final FifteenBoard startBoard;
+	private final FifteenBoard endBoard;
+	private final FifteenHeuristic heuristic;
+	private final Reporter reporter;
+	/** The optional table of lower bounds proven in the searched subtrees, or null. */
+	private final TranspositionTable transpositionTable;
+	private final MoveAutomaton automaton;
+
+	/** The current board, see {@link FifteenBoard#indexToPiece}. */
+	private long indexToPiece;
+	/** The current board, see {@link FifteenBoard#pieceToIndex}. */
+	private long pieceToIndex;
+
+	/** The number of visited nodes. */
+	@Getter private long nodes;
+}
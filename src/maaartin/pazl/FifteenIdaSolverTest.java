@@ -0,0 +1,64 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class FifteenIdaSolverTest extends TestCase {
+	private static class DoneReporter extends Reporter {
+		@Override public void report(EventType type, long step, Node<?> node) {
+			if (type == EventType.DONE) solutionLength = node.pastCost();
+		}
+
+		int solutionLength = -1;
+	}
+
+	public void testAgainstSolver() {
+		final Random random = new Random(42);
+		for (int i=0; i<20; ++i) {
+			final FifteenBoard start = randomWalk(random, 10 + 2*i);
+			final DoneReporter reporter = new DoneReporter();
+			Solver.create(start, GOAL, reporter).solve();
+			assertEquals(reporter.solutionLength, FifteenIdaSolver.create(start, GOAL, new DoneReporter()).solve());
+		}
+	}
+
+	public void testTranspositionTable() {
+		final Random random = new Random(43);
+		final FifteenHeuristic heuristic = new ManhattanHeuristic(GOAL);
+		// A tiny shared table makes the replacement and the bounds from earlier instances matter.
+		final TranspositionTable table = TranspositionTable.create(1);
+		for (int i=0; i<20; ++i) {
+			final FifteenBoard start = randomWalk(random, 20 + 2*i);
+			final FifteenIdaSolver plain = FifteenIdaSolver.create(start, heuristic, new DoneReporter());
+			final FifteenIdaSolver withTable = FifteenIdaSolver.create(start, heuristic, table, new DoneReporter());
+			assertEquals(plain.solve(), withTable.solve());
+			assertTrue(withTable.nodes() <= plain.nodes());
+		}
+		assertTrue(table.hits() > 0);
+	}
+
+	public void testMoveAutomaton() {
+		final Random random = new Random(44);
+		final FifteenHeuristic heuristic = new ManhattanHeuristic(GOAL);
+		final MoveAutomaton automaton = MoveAutomaton.standard();
+		for (int i=0; i<20; ++i) {
+			final FifteenBoard start = randomWalk(random, 20 + 2*i);
+			final FifteenIdaSolver plain = FifteenIdaSolver.create(start, heuristic, new DoneReporter());
+			final FifteenIdaSolver pruned = FifteenIdaSolver.create(start, heuristic, TranspositionTable.create(1),
+					automaton, new DoneReporter());
+			assertEquals(plain.solve(), pruned.solve());
+			assertTrue(pruned.nodes() <= plain.nodes());
+		}
+	}
+
+	public void testAlternative() {
+		final FifteenBoard start = randomWalk(new Random(0), 20).alternative();
+		final int solutionLength = FifteenIdaSolver.create(start, GOAL, new DoneReporter()).solve();
+		assertEquals(0, solutionLength & 1);
+		assertTrue(solutionLength >= start.distanceTo(GOAL.alternative()));
+	}
+}
@@ -0,0 +1,188 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A parallel version of {@link FifteenIdaSolver} using a {@link ForkJoinPool}.
+ *
+ * <p>In every iteration, the tree gets split into tasks up to {@code splitDepth}, the subtrees below get searched
+ * sequentially like in {@link FifteenIdaSolver}. The pool's work stealing takes care of the load balancing.
+ * The threshold of the next iteration and the length of the solution found get shared atomically,
+ * so that all tasks can stop as soon as any of them finds a solution.
+ */
+@RequiredArgsConstructor(access=AccessLevel.PRIVATE) final class FifteenParallelIdaSolver {
+	/**
+	 * Create a solver for the goal of the given heuristic, which must be reachable.
+	 *
+	 * @param splitDepth the depth up to which tasks get created; the number of tasks grows about twice per level
+	 */
+	public static FifteenParallelIdaSolver create(FifteenBoard startBoard, FifteenHeuristic heuristic,
+			int splitDepth, ForkJoinPool pool, Reporter reporter) {
+		checkArgument(startBoard.canReach(heuristic.goal()), "Unreachable goal");
+		checkArgument(splitDepth >= 0);
+		return new FifteenParallelIdaSolver(startBoard, heuristic.goal(), heuristic, splitDepth, pool, reporter);
+	}
+
+	/** Return the length of an optimal solution. */
+	int solve() {
+		nodes.set(0);
+		solutionLength.set(Integer.MAX_VALUE);
+		final int futureCost = heuristic.distance(startBoard);
+		threshold = futureCost;
+		while (true) {
+			checkState(threshold < MAX_COST, "Threshold too high: %s", Integer.valueOf(threshold));
+			reporter.report(EventType.LOWER_BOUND, nodes.get(), new Node<FifteenBoard>(startBoard, 0, threshold));
+			nextThreshold.set(Integer.MAX_VALUE);
+			pool.invoke(new SearchTask(startBoard.indexToPiece, startBoard.pieceToIndex, 0, futureCost, NO_INDEX));
+			if (solutionLength.get() <= threshold) break;
+			threshold = nextThreshold.get();
+		}
+		reporter.report(EventType.DONE, nodes.get(), new Node<FifteenBoard>(endBoard, threshold, 0));
+		return threshold;
+	}
+
+	long nodes() {
+		return nodes.get();
+	}
+
+	private void updateNextThreshold(int totalCost) {
+		while (true) {
+			final int old = nextThreshold.get();
+			if (old <= totalCost || nextThreshold.compareAndSet(old, totalCost)) return;
+		}
+	}
+
+	private boolean isSolved() {
+		return solutionLength.get() <= threshold;
+	}
+
+	/** A task searching the subtree of a node. Above the split depth, it spawns a task for every child. */
+	@SuppressWarnings("serial") @RequiredArgsConstructor private final class SearchTask extends RecursiveAction {
+		@Override protected void compute() {
+			if (isSolved()) return;
+			if (pastCost >= splitDepth) {
+				new LeafSearch(indexToPiece, pieceToIndex).run(pastCost, futureCost, previousEmptyIndex);
+				return;
+			}
+			nodes.incrementAndGet();
+			final int totalCost = pastCost + futureCost;
+			if (totalCost > threshold) {
+				updateNextThreshold(totalCost);
+				return;
+			}
+			if (indexToPiece == endBoard.indexToPiece) {
+				solutionLength.set(pastCost);
+				return;
+			}
+			final List<SearchTask> tasks = Lists.newArrayListWithCapacity(4);
+			final int emptyIndex = (int) (pieceToIndex & 15);
+			for (final int index : FifteenBoard.NEIGHBORS[emptyIndex]) {
+				if (index == previousEmptyIndex) continue;
+				final int piece = (int) (indexToPiece >>> 4*index) & 15;
+				final long childIndexToPiece = indexToPiece ^ ((long) piece << 4*index)
+						^ ((long) piece << 4*emptyIndex);
+				final long indexXor = index ^ emptyIndex;
+				final long childPieceToIndex = pieceToIndex ^ (indexXor << 4*piece) ^ indexXor;
+				final int childFutureCost = heuristic.childDistance(
+						futureCost, piece, index, emptyIndex, childIndexToPiece, childPieceToIndex);
+				tasks.add(new SearchTask(childIndexToPiece, childPieceToIndex, pastCost + 1,
+						childFutureCost, emptyIndex));
+			}
+			invokeAll(tasks);
+		}
+
+		private final long indexToPiece;
+		private final long pieceToIndex;
+		private final int pastCost;
+		private final int futureCost;
+		private final int previousEmptyIndex;
+	}
+
+	/** The sequential search of a subtree, working in place like {@link FifteenIdaSolver}. */
+	private final class LeafSearch {
+		LeafSearch(long indexToPiece, long pieceToIndex) {
+			this.indexToPiece = indexToPiece;
+			this.pieceToIndex = pieceToIndex;
+		}
+
+		void run(int pastCost, int futureCost, int previousEmptyIndex) {
+			final int result = search(pastCost, futureCost, previousEmptyIndex);
+			nodes.addAndGet(leafNodes);
+			if (result == FOUND) {
+				solutionLength.set(threshold);
+			} else if (result != ABORTED) {
+				updateNextThreshold(result);
+			}
+		}
+
+		/** Return {@link #FOUND}, {@link #ABORTED} or the lowest total cost exceeding the threshold. */
+		private int search(int pastCost, int futureCost, int previousEmptyIndex) {
+			if ((++leafNodes & ABORT_CHECK_MASK) == 0 && isSolved()) return ABORTED;
+			final int totalCost = pastCost + futureCost;
+			if (totalCost > threshold) return totalCost;
+			if (indexToPiece == endBoard.indexToPiece) return FOUND;
+			int result = Integer.MAX_VALUE;
+			final int emptyIndex = (int) (pieceToIndex & 15);
+			for (final int index : FifteenBoard.NEIGHBORS[emptyIndex]) {
+				if (index == previousEmptyIndex) continue;
+				final int piece = (int) (indexToPiece >>> 4*index) & 15;
+				move(emptyIndex, index);
+				final int childFutureCost =
+						heuristic.childDistance(futureCost, piece, index, emptyIndex, indexToPiece, pieceToIndex);
+				final int t = search(pastCost + 1, childFutureCost, emptyIndex);
+				move(index, emptyIndex);
+				if (t == FOUND || t == ABORTED) return t;
+				result = Math.min(result, t);
+			}
+			return result;
+		}
+
+		/** Move the piece from {@code index} to the empty field at {@code emptyIndex}. This is self-inverse. */
+		private void move(int emptyIndex, int index) {
+			final long piece = (indexToPiece >>> 4*index) & 15;
+			indexToPiece ^= (piece << 4*index) ^ (piece << 4*emptyIndex);
+			final long indexXor = index ^ emptyIndex;
+			pieceToIndex ^= (indexXor << 4*piece) ^ indexXor;
+		}
+
+		private long indexToPiece;
+		private long pieceToIndex;
+		private long leafNodes;
+	}
+
+	/** An exclusive limit on the solution length. */
+	private static final int MAX_COST = 256;
+	private static final int FOUND = -1;
+	private static final int ABORTED = -2;
+	private static final int NO_INDEX = -1;
+	/** Check for a solution found by other tasks every 1024 nodes. */
+	private static final long ABORT_CHECK_MASK = 1023;
+
+	private final FifteenBoard startBoard;
+	private final FifteenBoard endBoard;
+	private final FifteenHeuristic heuristic;
+	private final int splitDepth;
+	private final ForkJoinPool pool;
+	private final Reporter reporter;
+
+	/**
+	 * The threshold of the current iteration. It gets written before the tasks get started, so it needn't be
+	 * volatile.
+	 */
+	private int threshold;
+	private final AtomicInteger nextThreshold = new AtomicInteger();
+	private final AtomicInteger solutionLength = new AtomicInteger(Integer.MAX_VALUE);
+	private final AtomicLong nodes = new AtomicLong();
+}
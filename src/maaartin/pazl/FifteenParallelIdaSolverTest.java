@@ -0,0 +1,30 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+public class FifteenParallelIdaSolverTest extends TestCase {
+	public void testAgainstIda() {
+		final Random random = new Random(42);
+		final FifteenHeuristic heuristic = new ManhattanHeuristic(GOAL);
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int i=0; i<20; ++i) {
+				final FifteenBoard start = randomWalk(random, 10 + 3*i);
+				final int expected = FifteenIdaSolver.create(start, heuristic, Reporter.quiet()).solve();
+				for (int splitDepth=0; splitDepth<=6; splitDepth+=3) {
+					final Reporter reporter = Reporter.quiet();
+					assertEquals(expected,
+							FifteenParallelIdaSolver.create(start, heuristic, splitDepth, pool, reporter).solve());
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -1,20 +1,67 @@
 package maaartin.pazl;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import javax.management.JMException;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+
 import de.grajcar.dout.Dout;
 
 /**
  * Solver for the 4x4 sliding puzzle.
  * The goal is to find an optimal solution, so hacky optimizations are needed.
  * The board is represented by a long containing 4x4 nibbles.
+ *
+ * <p>The optional arguments are the engine ("astar", "ida" or "external") and the name of a
+ * {@link FifteenHeuristicKind}.
+ * The external engine keeps its files in the directory "external".
+ *
+ * <p>The search metrics get exposed via JMX and, if the system property {@value #METRICS_PROPERTY} is set,
+ * written as CSV into the file it names.
  */
 public class FifteenPazlDemo {
-	public static void main(String[] args) {
+	@SuppressWarnings("boxing") public static void main(String[] args) throws IOException, JMException {
 		Dout.a("STARTED");
-		final Solver<FifteenBoard> solver = Solver.create(START_BOARD, END_BOARD, new Reporter());
-		solver.solve();
+		final Reporter reporter = new Reporter().addSink(JmxMetricsSink.register("demo"));
+		final String metricsFile = System.getProperty(METRICS_PROPERTY);
+		final Writer metricsOutput = metricsFile==null ? null
+				: Files.newBufferedWriter(Paths.get(metricsFile), StandardCharsets.UTF_8);
+		if (metricsOutput != null) reporter.addSink(new CsvMetricsSink(metricsOutput));
+		final String engine = args.length>0 ? args[0] : "astar";
+		final FifteenHeuristicKind heuristicKind =
+				args.length>1 ? FifteenHeuristicKind.valueOf(args[1]) : FifteenHeuristicKind.MANHATTAN;
+		if (engine.equals("ida")) {
+			final FifteenBoard goal = START_BOARD.canReach(END_BOARD) ? END_BOARD : END_BOARD.alternative();
+			FifteenIdaSolver.create(START_BOARD, heuristicKind.create(goal), reporter).solve();
+		} else if (engine.equals("external")) {
+			final ExternalSolver<FifteenBoard> solver = ExternalSolver.create(START_BOARD, END_BOARD,
+					heuristicKind.create(END_BOARD), Paths.get("external"), EXTERNAL_RUN_LENGTH, reporter);
+			solver.solve();
+		} else {
+			final Solver<FifteenBoard> solver =
+					Solver.create(START_BOARD, END_BOARD, heuristicKind.create(END_BOARD), reporter);
+			solver.solve();
+			final List<FifteenBoard> path = solver.path();
+			final List<Integer> moves = Lists.newArrayList();
+			for (int i=1; i<path.size(); ++i) moves.add(path.get(i-1).movedPiece(path.get(i)));
+			System.out.println("Moved pieces: " + Joiner.on(' ').join(moves));
+		}
+		if (metricsOutput != null) metricsOutput.close();
 		Dout.a("DONE");
 	}
 
+	static final String METRICS_PROPERTY = "maaartin.pazl.metrics";
+
+	/** The number of boards sorted in memory by the external engine, taking 32 MB. */
+	private static final int EXTERNAL_RUN_LENGTH = 1 << 22;
+
 	private static final FifteenBoard START_BOARD = FifteenBoard.from(0x287B_504F_D9E3_1A6CL);
 	private static final FifteenBoard END_BOARD = FifteenBoard.from(0x1234_5678_9ABC_DEF0L);
 }
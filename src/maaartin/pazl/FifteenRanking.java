@@ -0,0 +1,167 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bijections between the boards of the {@link FifteenBoard} and dense numbers, so that per-board data can be stored
+ * in arrays like {@link PackedArray} instead of hashed collections.
+ *
+ * <p>All methods run in linear time: Ranking counts the smaller used values by a bit count,
+ * unranking selects the value by extracting a nibble from a packed list of the unused values.
+ * There are two orders of the full permutations:<ul>
+ * <li>The lexicographic one, where the board given by {@code 0xFEDC_BA98_7654_3210L} has rank 0.
+ * <li>The one by Myrvold and Ruskey, which needs no counting as it swaps the values into place.
+ * </ul>
+ *
+ * <p>The partial ranks of the positions of a group of pieces are lexicographic, too.
+ */
+final class FifteenRanking {
+	/** Return the lexicographic rank of the permutation given by {@link FifteenBoard#indexToPiece}. */
+	static long rank(long indexToPiece) {
+		int used = 0;
+		long result = 0;
+		for (int index=0; index<INDEX_LIMIT; ++index) {
+			final int piece = get(indexToPiece, index);
+			result = result * (INDEX_LIMIT-index) + piece - Integer.bitCount(used & ((1<<piece) - 1));
+			used |= 1 << piece;
+		}
+		return result;
+	}
+
+	/** Return the {@link FifteenBoard#indexToPiece} of the permutation with the given lexicographic rank. */
+	static long unrank(long rank) {
+		checkArgument(0 <= rank && rank < COUNT);
+		// Collect the digits of the factorial number system, with the first one being in the highest nibble.
+		long digits = 0;
+		for (int index=INDEX_LIMIT; index-->0; ) {
+			final int radix = INDEX_LIMIT - index;
+			digits |= (rank % radix) << 4*index;
+			rank /= radix;
+		}
+		long unused = IDENTITY;
+		long result = 0;
+		for (int index=0; index<INDEX_LIMIT; ++index) {
+			final int digit = get(digits, index);
+			result |= (long) get(unused, digit) << 4*index;
+			unused = remove(unused, digit);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the rank of the permutation in the order by Myrvold and Ruskey.
+	 * The arguments are {@link FifteenBoard#indexToPiece} and {@link FifteenBoard#pieceToIndex}.
+	 */
+	static long myrvoldRuskeyRank(long indexToPiece, long pieceToIndex) {
+		long result = 0;
+		long multiplier = 1;
+		for (int n=INDEX_LIMIT; n>1; --n) {
+			final int last = n - 1;
+			final int piece = get(indexToPiece, last);
+			// Move the piece n-1 to the last position, so that the remaining problem is a permutation of size n-1.
+			indexToPiece = swap(indexToPiece, last, get(pieceToIndex, last));
+			pieceToIndex = swap(pieceToIndex, piece, last);
+			result += piece * multiplier;
+			multiplier *= n;
+		}
+		return result;
+	}
+
+	/** Return the {@link FifteenBoard#indexToPiece} of the permutation with the given Myrvold-Ruskey rank. */
+	static long myrvoldRuskeyUnrank(long rank) {
+		checkArgument(0 <= rank && rank < COUNT);
+		long result = IDENTITY;
+		for (int n=INDEX_LIMIT; n>1; --n) {
+			result = swap(result, n-1, (int) (rank % n));
+			rank /= n;
+		}
+		return result;
+	}
+
+	/**
+	 * Return the lexicographic rank of the positions of the given pieces
+	 * on the board given by {@link FifteenBoard#pieceToIndex}.
+	 */
+	static int partialRank(long pieceToIndex, int[] pieces) {
+		int used = 0;
+		int result = 0;
+		for (int i=0; i<pieces.length; ++i) {
+			final int index = get(pieceToIndex, pieces[i]);
+			result = result * (INDEX_LIMIT-i) + index - Integer.bitCount(used & ((1<<index) - 1));
+			used |= 1 << index;
+		}
+		return result;
+	}
+
+	/**
+	 * Return the rank of the partial permutation given by the positions of the pieces,
+	 * i.e., its index in the lexicographically ordered list of all sequences of distinct indexes of the same length.
+	 */
+	static int partialRank(int[] positions) {
+		int used = 0;
+		int result = 0;
+		for (int i=0; i<positions.length; ++i) {
+			final int index = positions[i];
+			result = result * (INDEX_LIMIT-i) + index - Integer.bitCount(used & ((1<<index) - 1));
+			used |= 1 << index;
+		}
+		return result;
+	}
+
+	/**
+	 * Store into {@code positions} the partial permutation whose rank is {@code rank}.
+	 * This is the inverse of {@link #partialRank(int[])}.
+	 */
+	static void partialUnrank(int rank, int[] positions) {
+		final int k = positions.length;
+		for (int i=k; i-->0; ) {
+			final int radix = INDEX_LIMIT - i;
+			positions[i] = rank % radix;
+			rank /= radix;
+		}
+		// Now, every element contains its index among the unused indexes.
+		long unused = IDENTITY;
+		for (int i=0; i<k; ++i) {
+			final int digit = positions[i];
+			positions[i] = get(unused, digit);
+			unused = remove(unused, digit);
+		}
+	}
+
+	/**
+	 * Return the number of all partial permutations of length {@code k},
+	 * which must not exceed {@value #MAX_PARTIAL_LENGTH}.
+	 */
+	static int partialCount(int k) {
+		checkArgument(0 <= k && k <= MAX_PARTIAL_LENGTH);
+		int result = 1;
+		for (int i=0; i<k; ++i) result *= INDEX_LIMIT - i;
+		return result;
+	}
+
+	/** Remove the nibble at {@code position}, shifting all higher nibbles down. */
+	private static long remove(long data, int position) {
+		final long lowMask = (1L << 4*position) - 1;
+		return (data & lowMask) | ((data >>> 4) & ~lowMask);
+	}
+
+	private static long swap(long data, int index1, int index2) {
+		final long xor = get(data, index1) ^ get(data, index2);
+		return data ^ (xor << 4*index1) ^ (xor << 4*index2);
+	}
+
+	private static int get(long data, int index) {
+		return (int) ((data >>> (4*index)) & 0xF);
+	}
+
+	private static final int INDEX_LIMIT = 16;
+
+	/** The number of all permutations, i.e., 16!. */
+	static final long COUNT = 20_922_789_888_000L;
+
+	/** The longest partial permutation whose count fits in an int. */
+	static final int MAX_PARTIAL_LENGTH = 8;
+
+	/** The list of all values in increasing order, stored in nibbles. */
+	private static final long IDENTITY = 0xFEDC_BA98_7654_3210L;
+}
@@ -0,0 +1,78 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class FifteenRankingTest extends TestCase {
+	public void testRank() {
+		assertEquals(0, FifteenRanking.rank(0xFEDC_BA98_7654_3210L));
+		assertEquals(1, FifteenRanking.rank(0xEFDC_BA98_7654_3210L));
+		assertEquals(FifteenRanking.COUNT - 1, FifteenRanking.rank(0x0123_4567_89AB_CDEFL));
+		final Random random = new Random(42);
+		for (int i=0; i<1000; ++i) {
+			final long rank = (random.nextLong() >>> 1) % FifteenRanking.COUNT;
+			final long indexToPiece = FifteenRanking.unrank(rank);
+			assertEquals(indexToPiece, FifteenBoard.from(indexToPiece).toLong());
+			assertEquals(rank, FifteenRanking.rank(indexToPiece));
+		}
+	}
+
+	public void testRankPreservesOrder() {
+		final Random random = new Random(43);
+		for (int i=0; i<1000; ++i) {
+			final FifteenBoard board1 = randomWalk(random, 100);
+			final FifteenBoard board2 = randomWalk(random, 100);
+			final int expected = Long.signum(Long.compare(reversed(board1.toLong()), reversed(board2.toLong())));
+			final long rank1 = FifteenRanking.rank(board1.toLong());
+			final long rank2 = FifteenRanking.rank(board2.toLong());
+			assertEquals(expected, Long.signum(Long.compare(rank1, rank2)));
+		}
+	}
+
+	/** Return the nibbles in reverse order, so that comparing the results is the lexicographic comparison. */
+	private static long reversed(long data) {
+		long result = 0;
+		for (int i=0; i<16; ++i) result = (result << 4) | ((data >>> 4*i) & 15);
+		return result >>> 1;
+	}
+
+	public void testMyrvoldRuskeyRank() {
+		final long reversedIdentity = 0xFEDC_BA98_7654_3210L;
+		assertEquals(FifteenRanking.COUNT - 1, FifteenRanking.myrvoldRuskeyRank(reversedIdentity, reversedIdentity));
+		final Random random = new Random(44);
+		for (int i=0; i<1000; ++i) {
+			final FifteenBoard board = randomWalk(random, 100);
+			final long rank = FifteenRanking.myrvoldRuskeyRank(board.indexToPiece, board.pieceToIndex);
+			assertTrue(0 <= rank && rank < FifteenRanking.COUNT);
+			assertEquals(board.indexToPiece, FifteenRanking.myrvoldRuskeyUnrank(rank));
+		}
+		for (int i=0; i<1000; ++i) {
+			final long rank = (random.nextLong() >>> 1) % FifteenRanking.COUNT;
+			final FifteenBoard board = FifteenBoard.from(FifteenRanking.myrvoldRuskeyUnrank(rank));
+			assertEquals(rank, FifteenRanking.myrvoldRuskeyRank(board.indexToPiece, board.pieceToIndex));
+		}
+	}
+
+	public void testPartialRank() {
+		final int[] positions = new int[3];
+		for (int rank=0; rank<FifteenRanking.partialCount(positions.length); ++rank) {
+			FifteenRanking.partialUnrank(rank, positions);
+			assertEquals(rank, FifteenRanking.partialRank(positions));
+		}
+		assertEquals(0, FifteenRanking.partialRank(new int[] {0, 1, 2}));
+		assertEquals(16*15*14 - 1, FifteenRanking.partialRank(new int[] {15, 14, 13}));
+
+		final int[] pieces = {3, 1, 4, 15, 9};
+		final Random random = new Random(45);
+		for (int i=0; i<100; ++i) {
+			final FifteenBoard board = randomWalk(random, 100);
+			final int[] piecePositions = new int[pieces.length];
+			for (int j=0; j<pieces.length; ++j) piecePositions[j] = board.pieceToIndex(pieces[j]);
+			assertEquals(FifteenRanking.partialRank(piecePositions),
+					FifteenRanking.partialRank(board.pieceToIndex, pieces));
+		}
+	}
+}
@@ -0,0 +1,350 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Resources;
+
+import de.grajcar.dout.Dout;
+
+/**
+ * Run every engine with every heuristic on the instances of the {@link FifteenCorpus} and compare the results
+ * to a baseline, so that changes making the search slower or the heuristics weaker get noticed.
+ *
+ * <p>Every run gets written as a CSV line containing the instance, the engine, the heuristic, the solution length
+ * found and expected, the number of nodes, the wall time, the peak heap and the nodes per second. The nodes get
+ * counted as usual for the engine, i.e., A* and the frontier search count the expanded nodes and IDA* counts the
+ * visited ones, so only the rows of the same engine are comparable. The peak heap is the highest heap usage during
+ * the run minus the usage before it, after a {@link System#gc()}. As it includes garbage not collected yet, it
+ * depends on the collector and on the heap size.
+ *
+ * <p>The options are
+ * <ul>
+ * <li>{@code -instances REGEX}, the names of the instances to run, defaulting to the random walks up to length 80,
+ * <li>{@code -engines LIST}, comma-separated names of {@link Engine}s, defaulting to all,
+ * <li>{@code -heuristics LIST}, comma-separated names of {@link FifteenHeuristicKind}s, defaulting to the fast ones,
+ * <li>{@code -repeat N}, the number of runs per line, keeping the fastest one, defaulting to 1,
+ * <li>{@code -report FILE}, defaulting to the standard output,
+ * <li>{@code -baseline FILE}, an earlier report to compare to, defaulting to the resource
+ * {@value #BASELINE_RESOURCE}.
+ * </ul>
+ *
+ * <p>A baseline is just a report of an earlier run. Any solution of a wrong length is a regression, any other
+ * quantity is a regression when it exceeds the baseline by more than the relative tolerance and the slack given
+ * below. Then the regressions get printed and the exit status is 1. The wall time and the peak heap are
+ * machine-local, so they may be left empty. The committed resource is a report of the default run with them emptied,
+ * so that only the deterministic node counts get compared. Comparing the time and the heap needs a report made on
+ * the same machine.
+ */
+@RequiredArgsConstructor(access=AccessLevel.PACKAGE) public class FifteenRegressionSuite {
+	/** An engine solving the instances of the corpus. */
+	enum Engine {
+		ASTAR {
+			@Override Solution solve(FifteenBoard start, FifteenHeuristic heuristic) {
+				final Reporter reporter = Reporter.quiet();
+				final int length = Solver.create(start, heuristic.goal(), heuristic, reporter).solve();
+				return new Solution(length, reporter.metrics().snapshot(EventType.DONE, 0, length).expansions());
+			}
+		},
+		IDA {
+			@Override Solution solve(FifteenBoard start, FifteenHeuristic heuristic) {
+				final FifteenIdaSolver solver = FifteenIdaSolver.create(start, heuristic, Reporter.quiet());
+				final int length = solver.solve();
+				return new Solution(length, solver.nodes());
+			}
+		},
+		FRONTIER {
+			@Override Solution solve(FifteenBoard start, FifteenHeuristic heuristic) {
+				final FrontierSolver<FifteenBoard> solver =
+						FrontierSolver.create(start, heuristic.goal(), heuristic, Reporter.quiet());
+				final int length = solver.solve();
+				return new Solution(length, solver.expansions());
+			}
+
+			@Override boolean accepts(FifteenHeuristicKind kind) {
+				return kind.isConsistent();
+			}
+		},
+		;
+
+		/** Solve the board, whose goal must be the goal of the heuristic. */
+		abstract Solution solve(FifteenBoard start, FifteenHeuristic heuristic);
+
+		/** Return true if the engine works with the heuristic. The other combinations get skipped. */
+		boolean accepts(FifteenHeuristicKind kind) {
+			return true;
+		}
+	}
+
+	/** The result of {@link Engine#solve}. */
+	@Getter @RequiredArgsConstructor(access=AccessLevel.PRIVATE) static final class Solution {
+		private final int length;
+		private final long nodes;
+	}
+
+	/** A line of the report. */
+	@Getter @RequiredArgsConstructor(access=AccessLevel.PACKAGE) static final class Row {
+		/** Parse a line written by {@link #toString()}, possibly with the wall time and the peak heap left empty. */
+		static Row parse(String line) {
+			final List<String> f = FIELD_SPLITTER.splitToList(line);
+			checkArgument(f.size() == 9, "Malformed line: %s", line);
+			final boolean isMeasured = !f.get(6).isEmpty();
+			return new Row(f.get(0), Engine.valueOf(f.get(1)), FifteenHeuristicKind.valueOf(f.get(2)),
+					Integer.parseInt(f.get(3)), Integer.parseInt(f.get(4)), Long.parseLong(f.get(5)),
+					isMeasured ? Double.parseDouble(f.get(6)) : Double.NaN,
+					isMeasured ? Long.parseLong(f.get(7)) : 0);
+		}
+
+		/** Return false if the wall time and the peak heap are unknown, as in the committed baseline. */
+		boolean isMeasured() {
+			return !Double.isNaN(millis);
+		}
+
+		double nodesPerSecond() {
+			return millis==0 ? 0 : 1e3 * nodes / millis;
+		}
+
+		/** Return the key identifying the comparable rows. */
+		String key() {
+			return instance + "," + engine + "," + heuristic;
+		}
+
+		@SuppressWarnings("boxing") @Override public String toString() {
+			final String result = String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d",
+					instance, engine, heuristic, length, expectedLength, nodes);
+			if (!isMeasured()) return result + ",,,";
+			return result + String.format(Locale.ROOT, ",%.3f,%d,%.0f", millis, peakHeapBytes, nodesPerSecond());
+		}
+
+		private final String instance;
+		private final Engine engine;
+		private final FifteenHeuristicKind heuristic;
+		private final int length;
+		private final int expectedLength;
+		private final long nodes;
+		/** The wall time in milliseconds, or {@link Double#NaN} if unknown. */
+		private final double millis;
+		/** The peak heap, meaningless if the wall time is unknown. */
+		private final long peakHeapBytes;
+	}
+
+	public static void main(String[] args) throws IOException {
+		Dout.a("STARTED");
+		Pattern instances = Pattern.compile(DEFAULT_INSTANCES);
+		final List<Engine> engines = Lists.newArrayList(Engine.values());
+		final List<FifteenHeuristicKind> heuristics = Lists.newArrayList(DEFAULT_HEURISTICS);
+		int repeat = 1;
+		String reportFile = null;
+		String baselineFile = null;
+		for (int i=0; i<args.length; i+=2) {
+			checkArgument(i+1 < args.length, "Missing value for %s", args[i]);
+			final String value = args[i+1];
+			switch (args[i]) {
+				case "-instances": instances = Pattern.compile(value); break;
+				case "-engines":
+					engines.clear();
+					for (final String s : LIST_SPLITTER.split(value)) engines.add(Engine.valueOf(s));
+					break;
+				case "-heuristics":
+					heuristics.clear();
+					for (final String s : LIST_SPLITTER.split(value)) {
+						heuristics.add(FifteenHeuristicKind.valueOf(s));
+					}
+					break;
+				case "-repeat": repeat = Integer.parseInt(value); break;
+				case "-report": reportFile = value; break;
+				case "-baseline": baselineFile = value; break;
+				default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+		final List<FifteenCorpus.Instance> selected = Lists.newArrayList();
+		for (final FifteenCorpus.Instance instance : FifteenCorpus.load()) {
+			if (instances.matcher(instance.name()).matches()) selected.add(instance);
+		}
+		checkArgument(!selected.isEmpty(), "No instances matching %s", instances);
+		final FifteenRegressionSuite suite = new FifteenRegressionSuite(
+				NODE_TOLERANCE, TIME_TOLERANCE, TIME_SLACK_MILLIS, HEAP_TOLERANCE, HEAP_SLACK_BYTES);
+		final Writer output = reportFile==null ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+				: Files.newBufferedWriter(Paths.get(reportFile), StandardCharsets.UTF_8);
+		final List<Row> rows;
+		try {
+			rows = suite.runAll(selected, engines, heuristics, repeat, output);
+		} finally {
+			// Don't close the standard output.
+			if (reportFile==null) output.flush(); else output.close();
+		}
+		final List<Row> baseline = baselineFile==null ? loadBaseline()
+				: parseReport(Files.readAllLines(Paths.get(baselineFile), StandardCharsets.UTF_8));
+		final List<String> regressions = suite.regressions(baseline, rows);
+		for (final String regression : regressions) System.err.println("REGRESSION " + regression);
+		Dout.a("DONE");
+		if (!regressions.isEmpty()) System.exit(1);
+	}
+
+	/** Return the rows of the committed baseline. */
+	static List<Row> loadBaseline() {
+		try {
+			return parseReport(Resources.readLines(
+					Resources.getResource(FifteenRegressionSuite.class, BASELINE_RESOURCE), StandardCharsets.UTF_8));
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/** Parse the rows of a report, skipping the header, empty lines and comments starting with {@code '#'}. */
+	static List<Row> parseReport(Iterable<String> lines) {
+		final List<Row> result = Lists.newArrayList();
+		for (final String line : lines) {
+			if (!line.isEmpty() && !line.startsWith("#") && !line.equals(HEADER)) result.add(Row.parse(line));
+		}
+		return result;
+	}
+
+	/**
+	 * Run every engine with every heuristic on all instances, write the report with a header to {@code output}
+	 * and return its rows. The heuristics get created before, so that building a pattern database doesn't count,
+	 * and every engine solves the easiest instance once before, so that the JIT compilation doesn't count either.
+	 */
+	List<Row> runAll(List<FifteenCorpus.Instance> instances, List<Engine> engines,
+			List<FifteenHeuristicKind> heuristics, int repeat, Writer output) throws IOException {
+		checkArgument(repeat > 0);
+		final Map<FifteenHeuristicKind, FifteenHeuristic> created = Maps.newEnumMap(FifteenHeuristicKind.class);
+		for (final FifteenHeuristicKind kind : heuristics) created.put(kind, kind.create(Boards.GOAL));
+		FifteenCorpus.Instance easiest = instances.get(0);
+		for (final FifteenCorpus.Instance instance : instances) {
+			if (instance.length() < easiest.length()) easiest = instance;
+		}
+		for (final Engine engine : engines) {
+			for (final FifteenHeuristicKind kind : heuristics) {
+				if (engine.accepts(kind)) engine.solve(easiest.board(), created.get(kind));
+			}
+		}
+		output.write(HEADER);
+		output.write('\n');
+		final List<Row> result = Lists.newArrayList();
+		for (final FifteenCorpus.Instance instance : instances) {
+			for (final Engine engine : engines) {
+				for (final FifteenHeuristicKind kind : heuristics) {
+					if (!engine.accepts(kind)) continue;
+					Row best = null;
+					for (int i=0; i<repeat; ++i) {
+						final Row row = run(instance, engine, kind, created.get(kind));
+						if (best == null || row.millis() < best.millis()) best = row;
+					}
+					result.add(best);
+					output.write(best.toString());
+					output.write('\n');
+					output.flush();
+				}
+			}
+		}
+		return result;
+	}
+
+	/** Solve the instance and measure the run. */
+	Row run(FifteenCorpus.Instance instance, Engine engine, FifteenHeuristicKind kind, FifteenHeuristic heuristic) {
+		System.gc();
+		long heapBefore = 0;
+		for (final MemoryPoolMXBean pool : HEAP_POOLS) {
+			pool.resetPeakUsage();
+			heapBefore += pool.getUsage().getUsed();
+		}
+		final long start = System.nanoTime();
+		final Solution solution = engine.solve(instance.board(), heuristic);
+		final long nanos = System.nanoTime() - start;
+		long heapPeak = 0;
+		for (final MemoryPoolMXBean pool : HEAP_POOLS) heapPeak += pool.getPeakUsage().getUsed();
+		return new Row(instance.name(), engine, kind, solution.length(), instance.length(), solution.nodes(),
+				1e-6 * nanos, Math.max(0, heapPeak - heapBefore));
+	}
+
+	/**
+	 * Return descriptions of all regressions of {@code current} with respect to {@code baseline}.
+	 * Rows missing in the baseline get checked for the solution length only,
+	 * the wall time and the peak heap get compared only when the baseline row contains them.
+	 */
+	@SuppressWarnings("boxing") List<String> regressions(List<Row> baseline, List<Row> current) {
+		final Map<String, Row> baselineByKey = Maps.newHashMap();
+		for (final Row row : baseline) baselineByKey.put(row.key(), row);
+		final List<String> result = Lists.newArrayList();
+		for (final Row row : current) {
+			if (row.length() != row.expectedLength()) {
+				result.add(String.format("%s: length %d instead of %d",
+						row.key(), row.length(), row.expectedLength()));
+			}
+			final Row old = baselineByKey.get(row.key());
+			if (old == null) continue;
+			if (row.nodes() > (1 + nodeTolerance) * old.nodes()) {
+				result.add(String.format("%s: %d nodes instead of %d", row.key(), row.nodes(), old.nodes()));
+			}
+			if (!old.isMeasured()) continue;
+			if (row.millis() > (1 + timeTolerance) * old.millis() + timeSlackMillis) {
+				result.add(String.format(Locale.ROOT, "%s: %.3f ms instead of %.3f",
+						row.key(), row.millis(), old.millis()));
+			}
+			if (row.peakHeapBytes() > (1 + heapTolerance) * old.peakHeapBytes() + heapSlackBytes) {
+				result.add(String.format("%s: %d heap bytes instead of %d",
+						row.key(), row.peakHeapBytes(), old.peakHeapBytes()));
+			}
+		}
+		return result;
+	}
+
+	private static List<MemoryPoolMXBean> heapPools() {
+		final List<MemoryPoolMXBean> result = Lists.newArrayList();
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) result.add(pool);
+		}
+		return result;
+	}
+
+	/** The committed baseline of the default run, see the class comment. */
+	static final String BASELINE_RESOURCE = "fifteen-regression-baseline.csv";
+
+	static final String HEADER =
+			"instance,engine,heuristic,length,expected_length,nodes,millis,peak_heap_bytes,nodes_per_s";
+
+	/** The random walks solved by all engines and the default heuristics within a few seconds in total. */
+	private static final String DEFAULT_INSTANCES = "walk-0.*";
+	private static final FifteenHeuristicKind[] DEFAULT_HEURISTICS =
+		{FifteenHeuristicKind.MANHATTAN, FifteenHeuristicKind.LINEAR_CONFLICT};
+
+	/** The engines are deterministic, so the tolerance for the nodes is tiny. */
+	private static final double NODE_TOLERANCE = 0.01;
+	/** The wall time of single runs varies a lot, especially due to JIT compilation and GC. */
+	private static final double TIME_TOLERANCE = 0.25;
+	private static final double TIME_SLACK_MILLIS = 50;
+	/** The peak heap depends on when the GC happens to run. */
+	private static final double HEAP_TOLERANCE = 0.5;
+	private static final long HEAP_SLACK_BYTES = 64L << 20;
+
+	private static final List<MemoryPoolMXBean> HEAP_POOLS = heapPools();
+	private static final Splitter FIELD_SPLITTER = Splitter.on(',');
+	private static final Splitter LIST_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+	private final double nodeTolerance;
+	private final double timeTolerance;
+	private final double timeSlackMillis;
+	private final double heapTolerance;
+	private final long heapSlackBytes;
+}
@@ -0,0 +1,83 @@
+package maaartin.pazl;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import junit.framework.TestCase;
+
+public class FifteenRegressionSuiteTest extends TestCase {
+	public void testRunAll() throws Exception {
+		final List<FifteenCorpus.Instance> instances = Lists.newArrayList();
+		for (final FifteenCorpus.Instance instance : FifteenCorpus.load()) {
+			if (instance.name().matches("walk-0[1-5].*")) instances.add(instance);
+		}
+		final StringWriter output = new StringWriter();
+		final List<FifteenRegressionSuite.Row> rows = SUITE.runAll(instances,
+				Lists.newArrayList(FifteenRegressionSuite.Engine.values()),
+				Lists.newArrayList(FifteenHeuristicKind.MANHATTAN, FifteenHeuristicKind.LINEAR_CONFLICT), 1, output);
+		assertEquals(instances.size() * FifteenRegressionSuite.Engine.values().length * 2, rows.size());
+		final List<String> lines = Splitter.on('\n').omitEmptyStrings().splitToList(output.toString());
+		assertEquals(FifteenRegressionSuite.HEADER, lines.get(0));
+		assertEquals(rows.size() + 1, lines.size());
+		for (int i=0; i<rows.size(); ++i) {
+			final FifteenRegressionSuite.Row row = rows.get(i);
+			assertEquals(row.expectedLength(), row.length());
+			assertTrue(row.nodes() > 0);
+			assertEquals(lines.get(i+1), row.toString());
+			final FifteenRegressionSuite.Row parsed = FifteenRegressionSuite.Row.parse(lines.get(i+1));
+			assertEquals(row.key(), parsed.key());
+			assertEquals(row.length(), parsed.length());
+			assertEquals(row.nodes(), parsed.nodes());
+			assertEquals(row.millis(), parsed.millis(), 1e-3);
+			assertEquals(row.peakHeapBytes(), parsed.peakHeapBytes());
+		}
+		assertEquals(Lists.newArrayList(), SUITE.regressions(rows, rows));
+
+		final Set<String> baselineKeys = Sets.newHashSet();
+		for (final FifteenRegressionSuite.Row row : FifteenRegressionSuite.loadBaseline()) {
+			assertFalse(row.isMeasured());
+			baselineKeys.add(row.key());
+		}
+		for (final FifteenRegressionSuite.Row row : rows) assertTrue(row.key(), baselineKeys.contains(row.key()));
+		// Without the machine-local columns, the slow test machines can't cause false regressions.
+		assertEquals(Lists.newArrayList(), SUITE.regressions(FifteenRegressionSuite.loadBaseline(), rows));
+	}
+
+	public void testRegressions() {
+		final FifteenRegressionSuite.Row baseline = row("a", 30, 1000, 100, 1000);
+		final List<FifteenRegressionSuite.Row> baselines = Lists.newArrayList(baseline);
+		assertEquals(0, SUITE.regressions(baselines, Lists.newArrayList(row("a", 30, 1010, 124.9, 1200))).size());
+		assertEquals(0, SUITE.regressions(baselines, Lists.newArrayList(row("a", 30, 900, 10, 10))).size());
+		assertEquals(1, SUITE.regressions(baselines, Lists.newArrayList(row("a", 30, 1011, 100, 1000))).size());
+		assertEquals(1, SUITE.regressions(baselines, Lists.newArrayList(row("a", 30, 1000, 125.1, 1000))).size());
+		assertEquals(1, SUITE.regressions(baselines, Lists.newArrayList(row("a", 30, 1000, 100, 1501))).size());
+		assertEquals(3, SUITE.regressions(baselines, Lists.newArrayList(row("a", 30, 2000, 200, 2000))).size());
+		// A wrong length is a regression even without a baseline.
+		assertEquals(1, SUITE.regressions(baselines, Lists.newArrayList(row("b", 32, 1, 1, 1))).size());
+		assertEquals(0, SUITE.regressions(baselines, Lists.newArrayList(row("b", 30, 2000, 200, 2000))).size());
+
+		// Without the wall time and the peak heap, only the nodes get compared.
+		final FifteenRegressionSuite.Row unmeasured =
+				FifteenRegressionSuite.Row.parse("a,IDA,MANHATTAN,30,30,1000,,,");
+		assertFalse(unmeasured.isMeasured());
+		assertEquals("a,IDA,MANHATTAN,30,30,1000,,,", unmeasured.toString());
+		final List<FifteenRegressionSuite.Row> unmeasureds = Lists.newArrayList(unmeasured);
+		assertEquals(0,
+				SUITE.regressions(unmeasureds, Lists.newArrayList(row("a", 30, 1010, 1e9, 1L << 40))).size());
+		assertEquals(1, SUITE.regressions(unmeasureds, Lists.newArrayList(row("a", 30, 1011, 100, 1000))).size());
+	}
+
+	private static FifteenRegressionSuite.Row row(String instance, int length, long nodes, double millis,
+			long heap) {
+		return new FifteenRegressionSuite.Row(instance, FifteenRegressionSuite.Engine.IDA,
+				FifteenHeuristicKind.MANHATTAN, length, 30, nodes, millis, heap);
+	}
+
+	/** A suite without any slack. */
+	private static final FifteenRegressionSuite SUITE = new FifteenRegressionSuite(0.01, 0.25, 0, 0.5, 0);
+}
@@ -0,0 +1,224 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Best-first frontier search after Korf et al. for boards supporting {@link Board#toLong()}, which stores only
+ * the open boards, so that the memory needed is proportional to the size of the frontier instead of all boards seen.
+ *
+ * <p>Every open board stores a mask of its used moves, i.e., of the moves leading to neighbors which must not be
+ * generated again. Generating a child marks the move back to its parent as used. When a board gets expanded,
+ * it gets removed and no neighbor generates it again, as moves are reversible and every neighbor has either
+ * generated it before or has just been generated from it. Without a closed set, an expanded board reached again
+ * would be expanded again, so the heuristic must be consistent, which {@link Board#distanceTo(Board)} is.
+ * With no heuristic at all, this is a breadth-first search.
+ *
+ * <p>As there are no expanded boards to trace the solution back, every open board also stores its relay, i.e.,
+ * the last ancestor whose past cost doesn't exceed half of its total cost, which lies somewhere in the middle
+ * of the path. The path then gets reconstructed by divide and conquer: The searches from the start to the relay and
+ * from the relay to the end are much smaller and as their lengths are known, they put the relays exactly
+ * in the middle and prune all boards with higher total costs.
+ *
+ * <p>The relays get stored in a table only when they get passed to a child, as most boards are their own relays
+ * or have no children at all. The frontier stores just an index into the table, so that every slot
+ * takes {@value LongFrontierMap#SLOT_BYTES} bytes, while every slot of {@link LongCostMap} takes 9 bytes.
+ * For the 15-puzzle, the open boards are about half of all boards seen, so the memory gets reduced
+ * less than the number of boards.
+ */
+final class FrontierSolver<B extends Board<B>> {
+	private FrontierSolver(B startBoard, B endBoard, Heuristic<B> heuristic, Reporter reporter) {
+		checkArgument(startBoard.hasLongEncoding());
+		this.startBoard = startBoard;
+		this.endBoard = endBoard;
+		this.alternativeEndBoard = endBoard.alternative();
+		this.heuristic = heuristic;
+		this.reporter = reporter;
+	}
+
+	/** Create a solver using the given heuristic, which must be consistent for {@code endBoard}. */
+	public static <B extends Board<B>> FrontierSolver<B> create(B startBoard, B endBoard, Heuristic<B> heuristic,
+			Reporter reporter) {
+		return new FrontierSolver<B>(startBoard, endBoard, heuristic, reporter);
+	}
+
+	/** Return the length of an optimal solution or -1 if there's none. */
+	int solve() {
+		solution = null;
+		final int result = search(startBoard, endBoard, alternativeEndBoard, heuristic, UNKNOWN, reporter);
+		if (result >= 0) {
+			solution = reached;
+			solutionLength = result;
+			solutionRelay = relayCode;
+			solutionRelayCost = relayCost;
+		}
+		return result;
+	}
+
+	/**
+	 * Return the boards of the optimal solution found by the last call to {@link #solve()},
+	 * starting with {@code startBoard} and ending with the reached end board.
+	 * This needs a few additional searches, which are usually much cheaper than the search itself.
+	 */
+	List<B> path() {
+		checkState(solution != null, "No solution found");
+		final List<B> result = Lists.newArrayList(startBoard);
+		if (0 < solutionRelayCost && solutionRelayCost < solutionLength) {
+			final B middle = startBoard.fromLong(solutionRelay);
+			appendPath(startBoard, middle, solutionRelayCost, result);
+			appendPath(middle, solution, solutionLength - solutionRelayCost, result);
+		} else {
+			// All boards after the start had a past cost exceeding half of their total cost, e.g., without a
+			// heuristic.
+			appendPath(startBoard, solution, solutionLength, result);
+		}
+		return result;
+	}
+
+	/** Return the number of expanded nodes summed over all searches, including the ones done by {@link #path()}. */
+	long expansions() {
+		return expansions;
+	}
+
+	/** Return the maximum number of open boards. */
+	int maxFrontierSize() {
+		return maxFrontierSize;
+	}
+
+	/**
+	 * Return the peak memory used by the frontier, the open list and the relays, estimated as
+	 * {@value LongFrontierMap#SLOT_BYTES} bytes per slot of the frontier and 8 bytes per entry of the others.
+	 */
+	long peakBytes() {
+		return peakBytes;
+	}
+
+	/** Append the boards of an optimal path of the given length from {@code start} (exclusive) to {@code end}. */
+	private void appendPath(B start, B end, int cost, List<B> result) {
+		if (cost <= 1) {
+			if (cost == 1) result.add(end);
+			return;
+		}
+		// The given heuristic is good for the end board only, the relays and the alternative need the default one.
+		final Heuristic<B> h = end.equals(endBoard) ? heuristic : end.distanceHeuristic();
+		checkState(search(start, end, end, h, cost, Reporter.quiet()) == cost, "Inconsistent heuristic");
+		final B middle = start.fromLong(relayCode);
+		final int middleCost = relayCost;
+		appendPath(start, middle, middleCost, result);
+		appendPath(middle, end, cost - middleCost, result);
+	}
+
+	/**
+	 * Return the length of an optimal path from {@code start} to {@code end} or {@code alternativeEnd}
+	 * or -1 if there's none. Store the reached board and its relay in {@link #reached}, {@link #relayCode}
+	 * and {@link #relayCost}.
+	 *
+	 * @param knownCost the known length of the path or {@link #UNKNOWN}; if known, all boards with higher total
+	 *     costs get pruned and the relays get placed in the middle
+	 */
+	private int search(B start, B end, B alternativeEnd, Heuristic<B> h, int knownCost, Reporter searchReporter) {
+		frontier.clear();
+		queue.clear();
+		relays.clear();
+		final long startCode = start.toLong();
+		final int startFutureCost = h.distance(start);
+		frontier.put(startCode, 0, 0, SELF);
+		queue.add(startCode, 0, startFutureCost);
+		int lowerBound = -1;
+		while (!queue.isEmpty()) {
+			updatePeak();
+			final long code = queue.poll();
+			final int pastCost = queue.lastPastCost();
+			final int slot = frontier.find(code);
+			// Skip the entries superseded by a lower past cost, including the ones of already expanded boards.
+			if (slot == LongFrontierMap.ABSENT || frontier.pastCostAt(slot) != pastCost) continue;
+			final int usedMoves = frontier.usedMovesAt(slot);
+			int boardRelay = frontier.relayAt(slot);
+			frontier.removeAt(slot);
+			++expansions;
+			final B board = start.fromLong(code);
+			final int futureCost = queue.lastTotalCost() - pastCost;
+			if (queue.lastTotalCost() > lowerBound) {
+				lowerBound = queue.lastTotalCost();
+				searchReporter.report(EventType.LOWER_BOUND, expansions, new Node<B>(board, pastCost, futureCost));
+			}
+			if (board.equals(end) || board.equals(alternativeEnd)) {
+				reached = board;
+				relayCode = boardRelay == SELF ? code : relays.get(2 * boardRelay);
+				relayCost = boardRelay == SELF ? pastCost : (int) relays.get(2 * boardRelay + 1);
+				searchReporter.report(EventType.DONE, expansions, new Node<B>(board, pastCost, 0));
+				return pastCost;
+			}
+			final int childPastCost = pastCost + 1;
+			final int childCount = board.childCodes(childCodes);
+			for (int i=0; i<childCount; ++i) {
+				if ((usedMoves & (1 << i)) != 0) continue;
+				final long childCode = childCodes[i];
+				final int move = board.indexInChild(childCode);
+				final int childSlot = frontier.find(childCode);
+				if (childSlot != LongFrontierMap.ABSENT && frontier.pastCostAt(childSlot) <= childPastCost) {
+					frontier.markUsedAt(childSlot, move);
+					continue;
+				}
+				final B child = board.child(childCode);
+				final int childTotalCost = childPastCost + h.childDistance(board, futureCost, child);
+				if (knownCost != UNKNOWN && childTotalCost > knownCost) continue;
+				final boolean isRelay = 2 * childPastCost <= (knownCost == UNKNOWN ? childTotalCost : knownCost);
+				if (!isRelay && boardRelay == SELF) {
+					// The board becomes a relay, the table stores pairs of codes and past costs.
+					boardRelay = relays.size() / 2;
+					relays.push(code);
+					relays.push(pastCost);
+				}
+				frontier.put(childCode, childPastCost, 1 << move, isRelay ? SELF : boardRelay);
+				queue.add(childCode, childPastCost, childTotalCost);
+			}
+		}
+		return -1;
+	}
+
+	private void updatePeak() {
+		maxFrontierSize = Math.max(maxFrontierSize, frontier.size());
+		final long bytes = (long) LongFrontierMap.SLOT_BYTES * frontier.capacity()
+				+ 8L * (queue.size() + relays.size());
+		peakBytes = Math.max(peakBytes, bytes);
+	}
+
+	private static final int UNKNOWN = -1;
+	/** The relay of the boards being their own relays. */
+	private static final int SELF = -1;
+
+	private final B startBoard;
+	private final B endBoard;
+	private final B alternativeEndBoard;
+	private final Heuristic<B> heuristic;
+	private final Reporter reporter;
+
+	private final LongFrontierMap frontier = new LongFrontierMap();
+	private final LongBucketQueue queue = new LongBucketQueue();
+	/** The codes and the past costs of the relays referred to by the frontier. */
+	private final LongStack relays = new LongStack();
+	/** The buffer for {@link Board#childCodes(long[])}. */
+	private final long[] childCodes = new long[Board.MAX_CHILDREN];
+
+	/** The end board reached by the last search. */
+	private B reached;
+	/** The relay of {@link #reached}. */
+	private long relayCode;
+	/** The past cost of {@link #relay}. */
+	private int relayCost;
+
+	/** The end board reached by the last call to {@link #solve()} or null. */
+	private B solution;
+	private int solutionLength;
+	private long solutionRelay;
+	private int solutionRelayCost;
+
+	private long expansions;
+	private int maxFrontierSize;
+	private long peakBytes;
+}
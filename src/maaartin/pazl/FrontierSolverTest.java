@@ -0,0 +1,73 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
+import junit.framework.TestCase;
+
+public class FrontierSolverTest extends TestCase {
+	public void testAgainstSolver() {
+		final Random random = new Random(42);
+		final FifteenHeuristic heuristic = new ManhattanHeuristic(GOAL);
+		for (int i=0; i<12; ++i) {
+			FifteenBoard start = randomWalk(random, 10 + 4*i);
+			if (i%4 == 0) start = start.alternative();
+			final LongClosedSet<FifteenBoard> closedSet = new LongClosedSet<FifteenBoard>();
+			final OpenList<FifteenBoard> openList = new BucketOpenList<FifteenBoard>(start);
+			final int expected =
+					Solver.create(start, GOAL, heuristic, Reporter.quiet(), closedSet, openList).solve();
+			final FrontierSolver<FifteenBoard> solver =
+					FrontierSolver.create(start, GOAL, heuristic, Reporter.quiet());
+			assertEquals(expected, solver.solve());
+			assertTrue(solver.maxFrontierSize() < closedSet.map().size());
+			final List<FifteenBoard> path = solver.path();
+			assertEquals(expected + 1, path.size());
+			assertEquals(start, path.get(0));
+			final FifteenBoard end = path.get(expected);
+			assertTrue(end.equals(GOAL) || end.equals(GOAL.alternative()));
+			for (int j=1; j<path.size(); ++j) assertTrue(path.get(j-1).children().contains(path.get(j)));
+		}
+	}
+
+	/** Without a heuristic, the relays are useless and the path needs to be searched for again. */
+	public void testBreadthFirst() {
+		final EightBoard goal = EightBoard.from("123_456_780");
+		final Heuristic<EightBoard> none = new Heuristic<EightBoard>() {
+			@Override public int distance(EightBoard board) {
+				return 0;
+			}
+
+			@Override public int childDistance(EightBoard parent, int parentDistance, EightBoard child) {
+				return 0;
+			}
+		};
+		final Random random = new Random(43);
+		for (int i=0; i<5; ++i) {
+			EightBoard start = goal;
+			for (int j=0; j<30; ++j) {
+				final List<EightBoard> children = Lists.newArrayList(start.children());
+				start = children.get(random.nextInt(children.size()));
+			}
+			final int expected = Solver.create(start, goal, Reporter.quiet()).solve();
+			final FrontierSolver<EightBoard> solver = FrontierSolver.create(start, goal, none, Reporter.quiet());
+			assertEquals(expected, solver.solve());
+			final List<EightBoard> path = solver.path();
+			assertEquals(expected + 1, path.size());
+			assertEquals(goal, path.get(expected));
+			for (int j=1; j<path.size(); ++j) assertTrue(path.get(j-1).children().contains(path.get(j)));
+		}
+	}
+
+	public void testStartIsEnd() {
+		final EightBoard start = EightBoard.from("123_456_870");
+		final FrontierSolver<EightBoard> solver =
+				FrontierSolver.create(start, start, new DistanceToHeuristic<EightBoard>(start), Reporter.quiet());
+		assertEquals(0, solver.solve());
+		assertEquals(Lists.newArrayList(start), solver.path());
+	}
+}
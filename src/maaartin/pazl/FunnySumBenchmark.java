@@ -1,98 +1,7 @@
 package maaartin.pazl;
 
-import static com.google.common.base.Verify.verify;
-
-import java.util.Random;
-
-import de.grajcar.dout.Dout;
-
+/** Kernels computing the sum of the distances of pairs of two-bit numbers, see {@code DistanceSumJmhBenchmark}. */
 public class FunnySumBenchmark {
-	FunnySumBenchmark() {
-		final Random random = new Random(0);
-		for (int i=0; i<data.length; ++i) data[i] = random.nextLong();
-	}
-
-	public static void main(String[] args) {
-		Dout.a("STARTED");
-		new FunnySumBenchmark().go();
-		Dout.a("DONE");
-	}
-
-	private void go() {
-		verify(timeShiftySum() == timeFunnySum());
-		verify(timeMaaartySum() == timeFunnySum());
-
-		final int n = 1000;
-		for (int i=0; i<n; ++i) blackhole += timeFunnySum();
-		for (int i=0; i<n; ++i) blackhole += timeShiftySum();
-		for (int i=0; i<n; ++i) blackhole += timeFreakySum();
-		for (int i=0; i<n; ++i) blackhole += timeMaaartySum();
-
-		start = System.nanoTime();
-		for (int i=0; i<n; ++i) blackhole += timeFunnySum();
-		after("funny");
-
-		start = System.nanoTime();
-		for (int i=0; i<n; ++i) blackhole += timeFreakySum();
-		after("freaky");
-
-		start = System.nanoTime();
-		for (int i=0; i<n; ++i) blackhole += timeShiftySum();
-		after("shifty");
-
-		start = System.nanoTime();
-		for (int i=0; i<n; ++i) blackhole += timeMaaartySum();
-		after("maaarty");
-	}
-
-	void before() {
-		start = System.nanoTime();
-	}
-
-	@SuppressWarnings("boxing") private void after(String name) {
-		System.out.format("%-20s %6.3f\n", name, 1e-9 * (System.nanoTime() - start));
-	}
-
-	int timeFunnySum() {
-		int result = 0;
-		for (int i=0; i<data.length; ++i) {
-			for (int j=0; j<data.length; ++j) {
-				result += funnySum(data[i], data[j]);
-			}
-		}
-		return result;
-	}
-
-	int timeFreakySum() {
-		int result = 0;
-		for (int i=0; i<data.length; ++i) {
-			for (int j=0; j<data.length; ++j) {
-				result += freakySum(data[i], data[j]);
-			}
-		}
-		return result;
-	}
-
-	int timeShiftySum() {
-		int result = 0;
-		for (int i=0; i<data.length; ++i) {
-			for (int j=0; j<data.length; ++j) {
-				result += shiftySum(data[i], data[j]);
-			}
-		}
-		return result;
-	}
-
-	int timeMaaartySum() {
-		int result = 0;
-		for (int i=0; i<data.length; ++i) {
-			for (int j=0; j<data.length; ++j) {
-				result += maaartySum(data[i], data[j]);
-			}
-		}
-		return result;
-	}
-
 	int funnySum(long x, long y) {
 		int result = 0;
 		for (int i=0; i<32; ++i, x>>=2, y>>=2) {
@@ -196,10 +105,4 @@ public class FunnySumBenchmark {
 		// count the high bits twice
 		return Long.bitCount(val) + Long.bitCount(val & HIGH);
 	}
-
-
-	public volatile long blackhole;
-	private long start;
-
-	private final long[] data = new long[1000];
 }
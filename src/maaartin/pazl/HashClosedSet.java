@@ -0,0 +1,30 @@
+package maaartin.pazl;
+
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+/** The general, but memory-hungry implementation of {@link ClosedSet}. */
+final class HashClosedSet<B extends Board<B>> implements ClosedSet<B> {
+	@SuppressWarnings("boxing") @Override public boolean offer(B board, int pastCost) {
+		final Integer oldPastCost = map.get(board);
+		if (oldPastCost!=null && oldPastCost <= pastCost) return false;
+		map.put(board, pastCost);
+		return true;
+	}
+
+	@SuppressWarnings("boxing") @Override public int pastCost(B board) {
+		final Integer result = map.get(board);
+		return result==null ? -1 : result;
+	}
+
+	@Override public int size() {
+		return map.size();
+	}
+
+	@Override public void clear() {
+		map.clear();
+	}
+
+	private final Map<B, Integer> map = Maps.newHashMap();
+}
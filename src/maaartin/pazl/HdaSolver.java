@@ -0,0 +1,203 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+
+/**
+ * Hash distributed A* (HDA*) for boards supporting {@link Board#toLong()}.
+ *
+ * <p>Every board is owned by the worker given by its hash. Every worker has its own {@link LongBucketQueue}
+ * and {@link LongCostMap} and sends the generated children owned by other workers in batches through lock-free
+ * queues.
+ *
+ * <p>A solution found provides an upper bound and all nodes not cheaper than it get pruned.
+ * The search terminates when all workers are idle and no batch is in flight, so that all nodes cheaper than the
+ * best solution found have been expanded, which guarantees optimality.
+ * This is tracked by a single counter of active workers and sent but not yet received batches.
+ * As it gets incremented only by active workers or by workers receiving a batch (before the batch gets released),
+ * it can't reach zero prematurely.
+ */
+final class HdaSolver<B extends Board<B>> {
+	private HdaSolver(B startBoard, B endBoard, Heuristic<B> heuristic, int threads, Reporter reporter) {
+		checkArgument(startBoard.hasLongEncoding());
+		checkArgument(threads > 0);
+		this.startBoard = startBoard;
+		this.endBoard = endBoard;
+		this.alternativeEndBoard = endBoard.alternative();
+		this.heuristic = heuristic;
+		this.reporter = reporter;
+		workers = Lists.newArrayListWithCapacity(threads);
+		for (int i=0; i<threads; ++i) workers.add(new Worker(threads));
+	}
+
+	/** Create a solver using the given heuristic, which must be admissible for {@code endBoard}. */
+	public static <B extends Board<B>> HdaSolver<B> create(B startBoard, B endBoard, Heuristic<B> heuristic,
+			int threads, Reporter reporter) {
+		return new HdaSolver<B>(startBoard, endBoard, heuristic, threads, reporter);
+	}
+
+	/** Return the length of an optimal solution or -1 if there's none. */
+	int solve() throws InterruptedException {
+		workers.get(owner(startBoard.toLong())).offer(startBoard.toLong(), 0, heuristic.distance(startBoard));
+		work.set(workers.size());
+		final List<Thread> threads = Lists.newArrayList();
+		for (int i=0; i<workers.size(); ++i) threads.add(new Thread(workers.get(i), "hda-" + i));
+		for (final Thread t : threads) t.start();
+		for (final Thread t : threads) t.join();
+		if (solution == null) return -1;
+		reporter.report(EventType.DONE, expansions(), new Node<B>(solution, bestCost, 0));
+		return bestCost;
+	}
+
+	/** Return the number of expanded nodes summed over all workers. */
+	long expansions() {
+		long result = 0;
+		for (final Worker w : workers) result += w.expansions;
+		return result;
+	}
+
+	private synchronized void offerSolution(B board, int cost) {
+		if (cost >= bestCost) return;
+		bestCost = cost;
+		solution = board;
+		reporter.report(EventType.UPPER_BOUND, expansions(), new Node<B>(board, cost, 0));
+	}
+
+	/** Return the index of the worker owning the board with the given code. */
+	private int owner(long code) {
+		// Use a different mixing than LongCostMap, so that the boards of a worker spread evenly in its closed set.
+		long hash = code * 0xC2B2AE3D27D4EB4FL;
+		hash ^= hash >>> 29;
+		return (int) (((hash & 0xFFFF_FFFFL) * workers.size()) >>> 32);
+	}
+
+	private final class Worker implements Runnable {
+		Worker(int threads) {
+			outboxes = new long[threads][];
+			outboxSizes = new int[outboxes.length];
+		}
+
+		@Override public void run() {
+			boolean active = true;
+			while (!done) {
+				for (long[] batch; (batch = inbox.poll()) != null; ) {
+					if (!active) {
+						work.incrementAndGet();
+						active = true;
+					}
+					for (int i=0; i<batch.length && batch[i]!=0; i+=2) {
+						offer(batch[i], (int) (batch[i+1] >>> 8), (int) (batch[i+1] & 0xFF));
+					}
+					work.decrementAndGet();
+				}
+				if (!queue.isEmpty() && queue.minTotalCost() < bestCost) {
+					for (int i=0; i<EXPANSIONS_PER_ROUND && !queue.isEmpty()
+							&& queue.minTotalCost() < bestCost; ++i) {
+						expand();
+					}
+					flush();
+					continue;
+				}
+				flush();
+				if (active) {
+					active = false;
+					if (work.decrementAndGet() == 0) done = true;
+				}
+				if (inbox.isEmpty()) LockSupport.parkNanos(IDLE_NANOS);
+			}
+		}
+
+		/** Record that the board given by its code was reached with the given costs. */
+		void offer(long code, int pastCost, int futureCost) {
+			final int oldPastCost = closedSet.get(code);
+			if (oldPastCost!=LongCostMap.ABSENT && oldPastCost <= pastCost) return;
+			closedSet.put(code, pastCost);
+			queue.add(code, pastCost, pastCost + futureCost);
+		}
+
+		private void expand() {
+			final long code = queue.poll();
+			final int pastCost = queue.lastPastCost();
+			// Skip the node when it has been reopened with a lower past cost.
+			if (pastCost > closedSet.get(code)) return;
+			++expansions;
+			final B board = startBoard.fromLong(code);
+			if (board.equals(endBoard) || board.equals(alternativeEndBoard)) {
+				offerSolution(board, pastCost);
+				return;
+			}
+			final int futureCost = queue.lastTotalCost() - pastCost;
+			final int childPastCost = pastCost + 1;
+			for (final B child : board.children()) {
+				final int childFutureCost = heuristic.childDistance(board, futureCost, child);
+				if (childPastCost + childFutureCost >= bestCost) continue;
+				final long childCode = child.toLong();
+				final int owner = owner(childCode);
+				if (workers.get(owner) == this) {
+					offer(childCode, childPastCost, childFutureCost);
+				} else {
+					send(owner, childCode, ((long) childPastCost << 8) + childFutureCost);
+				}
+			}
+		}
+
+		private void send(int owner, long code, long costs) {
+			long[] outbox = outboxes[owner];
+			if (outbox == null) outbox = outboxes[owner] = new long[2 * BATCH_SIZE];
+			int size = outboxSizes[owner];
+			outbox[size++] = code;
+			outbox[size++] = costs;
+			outboxSizes[owner] = size;
+			if (size == outbox.length) flush(owner);
+		}
+
+		private void flush() {
+			for (int owner=0; owner<outboxes.length; ++owner) {
+				if (outboxSizes[owner] > 0) flush(owner);
+			}
+		}
+
+		/** Send the outbox to its owner. As the zero code is impossible, it terminates a partially filled batch. */
+		private void flush(int owner) {
+			work.incrementAndGet();
+			workers.get(owner).inbox.add(outboxes[owner]);
+			outboxes[owner] = null;
+			outboxSizes[owner] = 0;
+		}
+
+		private final Queue<long[]> inbox = Queues.newConcurrentLinkedQueue();
+		private final long[][] outboxes;
+		private final int[] outboxSizes;
+
+		private final LongBucketQueue queue = new LongBucketQueue();
+		private final LongCostMap closedSet = new LongCostMap();
+
+		private volatile long expansions;
+	}
+
+	/** The number of pairs (code, costs) sent at once. */
+	private static final int BATCH_SIZE = 256;
+	private static final int EXPANSIONS_PER_ROUND = 1024;
+	private static final long IDLE_NANOS = 20_000;
+
+	private final B startBoard;
+	private final B endBoard;
+	private final B alternativeEndBoard;
+	private final Heuristic<B> heuristic;
+	private final Reporter reporter;
+
+	private final List<Worker> workers;
+	/** The number of active workers plus the number of batches in flight. */
+	private final AtomicInteger work = new AtomicInteger();
+	private volatile boolean done;
+
+	private volatile int bestCost = Integer.MAX_VALUE;
+	private volatile B solution;
+}
@@ -0,0 +1,22 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class HdaSolverTest extends TestCase {
+	public void testAgainstIda() throws Exception {
+		final Random random = new Random(42);
+		final FifteenHeuristic heuristic = new ManhattanHeuristic(GOAL);
+		for (int i=0; i<20; ++i) {
+			final FifteenBoard start = randomWalk(random, 10 + 2*i);
+			final int expected = FifteenIdaSolver.create(start, heuristic, Reporter.quiet()).solve();
+			for (int threads=1; threads<=4; ++threads) {
+				assertEquals(expected, HdaSolver.create(start, GOAL, heuristic, threads, Reporter.quiet()).solve());
+			}
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package maaartin.pazl;
+
+import java.util.PriorityQueue;
+
+import com.google.common.collect.Queues;
+
+/** The general implementation of {@link OpenList}, with arbitrary tie-breaking. */
+final class HeapOpenList<B extends Board<B>> implements OpenList<B> {
+	@Override public void add(Node<B> node) {
+		queue.add(node);
+	}
+
+	@Override public Node<B> poll() {
+		return queue.poll();
+	}
+
+	@Override public int size() {
+		return queue.size();
+	}
+
+	@Override public void clear() {
+		queue.clear();
+	}
+
+	private final PriorityQueue<Node<B>> queue = Queues.newPriorityQueue();
+}
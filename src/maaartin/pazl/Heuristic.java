@@ -0,0 +1,14 @@
+package maaartin.pazl;
+
+/** A lower bound on the number of moves needed to get from a board to a fixed goal. */
+interface Heuristic<B extends Board<B>> {
+	/** Return a lower bound on the number of moves from {@code board} to the goal. */
+	int distance(B board);
+
+	/**
+	 * Return the same value as {@link #distance(Board)} for {@code child}, given that it's a child of {@code parent}
+	 * and that the distance of the parent is {@code parentDistance}.
+	 * This allows to compute the value incrementally as a move changes the position of a single piece only.
+	 */
+	int childDistance(B parent, int parentDistance, B child);
+}
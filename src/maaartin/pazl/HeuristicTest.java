@@ -0,0 +1,125 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import junit.framework.TestCase;
+
+public class HeuristicTest extends TestCase {
+	public void testManhattan() {
+		final ManhattanHeuristic heuristic = new ManhattanHeuristic(GOAL);
+		final Random random = new Random(42);
+		for (int i=0; i<100; ++i) {
+			final FifteenBoard board = randomWalk(random, 100);
+			assertEquals(board.distanceTo(GOAL), heuristic.distance(board));
+		}
+		checkChildDistance(heuristic);
+	}
+
+	public void testAdmissible() {
+		final List<FifteenHeuristic> heuristics = Lists.newArrayList(
+				new LinearConflictHeuristic(GOAL), new WalkingDistanceHeuristic(GOAL));
+		final Random random = new Random(42);
+		for (final FifteenHeuristic heuristic : heuristics) assertEquals(0, heuristic.distance(GOAL));
+		for (int i=0; i<20; ++i) {
+			final FifteenBoard board = randomWalk(random, 10 + 2*i);
+			final int solutionLength = FifteenIdaSolver.create(board, GOAL, Reporter.quiet()).solve();
+			for (final FifteenHeuristic heuristic : heuristics) {
+				final int distance = heuristic.distance(board);
+				assertTrue(distance <= solutionLength);
+				assertEquals(solutionLength & 1, distance & 1);
+				assertEquals(solutionLength, FifteenIdaSolver.create(board, heuristic, Reporter.quiet()).solve());
+			}
+			assertTrue(heuristics.get(0).distance(board) >= board.distanceTo(GOAL));
+		}
+	}
+
+	public void testLinearConflict() {
+		// Swapping two neighboring pieces in their goal row gives one conflict.
+		final FifteenBoard board = FifteenBoard.from(0x2134_5678_9ABC_DEF0L);
+		assertEquals(4, new LinearConflictHeuristic(GOAL).distance(board));
+	}
+
+	public void testPatternDatabase() {
+		checkChildDistance(PatternDatabaseHeuristic.create(GOAL, PARTITION_33333));
+	}
+
+	public void testSymmetric() {
+		final PatternDatabaseHeuristic base = PatternDatabaseHeuristic.create(GOAL, PARTITION_33333);
+		final SymmetricHeuristic reflected = new SymmetricHeuristic(base, false);
+		final SymmetricHeuristic heuristic = new SymmetricHeuristic(base, true);
+		assertEquals(0, heuristic.distance(GOAL));
+		final Random random = new Random(42);
+		long baseNodes = 0;
+		long nodes = 0;
+		for (int i=0; i<20; ++i) {
+			final FifteenBoard board = randomWalk(random, 10 + 2*i);
+			final int distance = heuristic.distance(board);
+			assertTrue(base.distance(board) <= reflected.distance(board));
+			assertTrue(reflected.distance(board) <= distance);
+			final FifteenIdaSolver baseSolver = FifteenIdaSolver.create(board, base, Reporter.quiet());
+			final int solutionLength = baseSolver.solve();
+			assertTrue(distance <= solutionLength);
+			final FifteenIdaSolver solver = FifteenIdaSolver.create(board, heuristic, Reporter.quiet());
+			assertEquals(solutionLength, solver.solve());
+			baseNodes += baseSolver.nodes();
+			nodes += solver.nodes();
+		}
+		assertTrue(nodes < baseNodes);
+	}
+
+	/** The reflection keeps the distances and so does the dual when the empty field is at its goal index. */
+	public void testReflectAndDual() {
+		final SymmetricHeuristic heuristic =
+				new SymmetricHeuristic(PatternDatabaseHeuristic.create(GOAL, PARTITION_33333), true);
+		assertEquals(GOAL, heuristic.reflect(GOAL));
+		assertEquals(GOAL, heuristic.dual(GOAL));
+		assertEquals(FifteenBoard.from(0x5234_1678_9ABC_DEF0L),
+				heuristic.reflect(FifteenBoard.from(0x2134_5678_9ABC_DEF0L)));
+		assertEquals(FifteenBoard.from(0x3124_5678_9ABC_DEF0L),
+				heuristic.dual(FifteenBoard.from(0x2314_5678_9ABC_DEF0L)));
+		final Random random = new Random(42);
+		int count = 0;
+		for (int i=0; i<200 && count<10; ++i) {
+			final FifteenBoard board = randomWalk(random, 30);
+			assertEquals(board, heuristic.reflect(heuristic.reflect(board)));
+			assertEquals(board, heuristic.dual(heuristic.dual(board)));
+			if (board.pieceToIndex(0) != GOAL.pieceToIndex(0)) continue;
+			final int solutionLength = FifteenIdaSolver.create(board, GOAL, Reporter.quiet()).solve();
+			assertEquals(solutionLength,
+					FifteenIdaSolver.create(heuristic.reflect(board), GOAL, Reporter.quiet()).solve());
+			assertEquals(solutionLength,
+					FifteenIdaSolver.create(heuristic.dual(board), GOAL, Reporter.quiet()).solve());
+			++count;
+		}
+		assertEquals(10, count);
+	}
+
+	public void testDistanceTo() {
+		checkChildDistance(new DistanceToHeuristic<FifteenBoard>(GOAL));
+	}
+
+	private void checkChildDistance(Heuristic<FifteenBoard> heuristic) {
+		final Random random = new Random(0);
+		for (int i=0; i<100; ++i) {
+			final FifteenBoard board = randomWalk(random, 100);
+			final int distance = heuristic.distance(board);
+			for (final FifteenBoard child : board.children()) {
+				assertEquals(heuristic.distance(child), heuristic.childDistance(board, distance, child));
+			}
+		}
+	}
+
+	private static final ImmutableList<int[]> PARTITION_33333 = ImmutableList.of(
+			new int[] {1, 2, 3},
+			new int[] {4, 5, 6},
+			new int[] {7, 8, 9},
+			new int[] {10, 11, 12},
+			new int[] {13, 14, 15});
+}
@@ -0,0 +1,66 @@
+package maaartin.pazl;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/** A {@link MetricsSink} exposing the latest snapshot as an MXBean. */
+final class JmxMetricsSink implements MetricsSink, SearchMetricsMXBean {
+	private JmxMetricsSink() {
+	}
+
+	/** Create a sink and register it with the platform MBean server under the given name. */
+	static JmxMetricsSink register(String name) throws JMException {
+		final JmxMetricsSink result = new JmxMetricsSink();
+		ManagementFactory.getPlatformMBeanServer().registerMBean(result,
+				new ObjectName("maaartin.pazl:type=SearchMetrics,name=" + ObjectName.quote(name)));
+		return result;
+	}
+
+	@Override public void accept(MetricsSnapshot snapshot) {
+		last = snapshot;
+	}
+
+	@Override public String getLastEvent() {
+		return last.type().name();
+	}
+
+	@Override public long getStep() {
+		return last.step();
+	}
+
+	@Override public long getExpansions() {
+		return last.expansions();
+	}
+
+	@Override public long getGenerated() {
+		return last.generated();
+	}
+
+	@Override public int getOpenSize() {
+		return last.openSize();
+	}
+
+	@Override public int getClosedSize() {
+		return last.closedSize();
+	}
+
+	@Override public double getExpansionsPerSecond() {
+		return last.expansionsPerSecond();
+	}
+
+	@Override public int getHeuristicError() {
+		return last.heuristicError();
+	}
+
+	@Override public long getHeapUsed() {
+		return last.heapUsed();
+	}
+
+	@Override public long[] getTotalCostHistogram() {
+		return last.totalCostHistogram().clone();
+	}
+
+	private volatile MetricsSnapshot last = new SearchMetrics().snapshot(EventType.NOTHING, 0, -1);
+}
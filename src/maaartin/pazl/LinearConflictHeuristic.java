@@ -0,0 +1,70 @@
+package maaartin.pazl;
+
+/**
+ * The manhattan distance increased by the linear conflicts.
+ *
+ * <p>Two pieces are in a linear conflict when they're in the same row (or column) they belong to in the goal,
+ * but in the reversed order. Then one of them has to leave the row, which costs two additional moves.
+ * For every row, we need to remove all but the longest correctly ordered subsequence.
+ *
+ * <p>The additional costs get precomputed for every row and every content of it, so that the evaluation
+ * needs just eight lookups indexed by the nibbles of {@link FifteenBoard#indexToPiece}.
+ */
+final class LinearConflictHeuristic extends FifteenHeuristic {
+	LinearConflictHeuristic(FifteenBoard goal) {
+		super(goal);
+		goalPieceToIndex = goal.pieceToIndex;
+		final int[] goalCols = new int[16];
+		final int[] goalRows = new int[16];
+		for (int piece=1; piece<16; ++piece) {
+			goalCols[piece] = FifteenBoard.indexToCol(goal.pieceToIndex(piece));
+			goalRows[piece] = FifteenBoard.indexToRow(goal.pieceToIndex(piece));
+		}
+		for (int line=0; line<4; ++line) {
+			for (int nibbles=0; nibbles<1<<16; ++nibbles) {
+				// Within a column, the position is given by the row and vice versa.
+				colConflicts[(line<<16) + nibbles] = conflicts(line, nibbles, goalCols, goalRows);
+				rowConflicts[(line<<16) + nibbles] = conflicts(line, nibbles, goalRows, goalCols);
+			}
+		}
+	}
+
+	/**
+	 * Return the additional cost for a line containing the given pieces.
+	 *
+	 * @param goalLines the line every piece belongs to
+	 * @param goalPositions the position within the line every piece belongs to
+	 */
+	private static byte conflicts(int line, int nibbles, int[] goalLines, int[] goalPositions) {
+		// The lengths of the longest increasing subsequences of goal positions ending with the given position.
+		final int[] lengths = new int[4];
+		int count = 0;
+		int longest = 0;
+		for (int i=0; i<4; ++i) {
+			final int piece = (nibbles >> 4*i) & 15;
+			if (piece==0 || goalLines[piece]!=line) continue;
+			++count;
+			final int position = goalPositions[piece];
+			int length = 1;
+			for (int j=0; j<position; ++j) length = Math.max(length, lengths[j] + 1);
+			lengths[position] = length;
+			longest = Math.max(longest, length);
+		}
+		return (byte) (2 * (count - longest));
+	}
+
+	@Override int distance(long indexToPiece, long pieceToIndex) {
+		int result = FifteenBoard.manhattanDistance(pieceToIndex, goalPieceToIndex);
+		for (int line=0; line<4; ++line) {
+			result += colConflicts[(line<<16) + FifteenBoard.colNibbles(indexToPiece, line)];
+			result += rowConflicts[(line<<16) + FifteenBoard.rowNibbles(indexToPiece, line)];
+		}
+		return result;
+	}
+
+	private final long goalPieceToIndex;
+	/** The additional cost for every column and its content, see {@link FifteenBoard#colNibbles(long, int)}. */
+	private final byte[] colConflicts = new byte[4 << 16];
+	/** The additional cost for every row and its content, see {@link FifteenBoard#rowNibbles(long, int)}. */
+	private final byte[] rowConflicts = new byte[4 << 16];
+}
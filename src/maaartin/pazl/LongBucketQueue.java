@@ -0,0 +1,119 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+
+/**
+ * A priority queue of longs with small integral costs.
+ *
+ * <p>There's a bucket for every total cost and every bucket consists of stacks for every past cost.
+ * Both operations take constant time and only 8 bytes per entry are needed.
+ * Ties are broken by preferring the higher past cost and then by LIFO,
+ * which makes the search dive towards the goal when there are many nodes with the same total cost.
+ */
+final class LongBucketQueue {
+	void add(long value, int pastCost, int totalCost) {
+		checkArgument(0 <= pastCost && pastCost <= totalCost && totalCost < MAX_COST);
+		if (totalCost >= buckets.length) {
+			final int newLength = Math.min(MAX_COST, Math.max(2 * buckets.length, totalCost + 1));
+			buckets = Arrays.copyOf(buckets, newLength);
+			bucketSizes = Arrays.copyOf(bucketSizes, newLength);
+		}
+		LongStack[] bucket = buckets[totalCost];
+		if (bucket == null) bucket = buckets[totalCost] = new LongStack[totalCost + 1];
+		LongStack stack = bucket[pastCost];
+		if (stack == null) stack = bucket[pastCost] = new LongStack();
+		stack.push(value);
+		++bucketSizes[totalCost];
+		++size;
+		minTotalCost = Math.min(minTotalCost, totalCost);
+	}
+
+	/** Return the lowest total cost of all entries. The queue must not be empty. */
+	int minTotalCost() {
+		checkState(size > 0);
+		while (bucketSizes[minTotalCost] == 0) ++minTotalCost;
+		return minTotalCost;
+	}
+
+	/**
+	 * Remove and return a value with the lowest total cost. The queue must not be empty.
+	 * Its costs can be obtained via {@link #lastPastCost()} and {@link #lastTotalCost()}.
+	 */
+	long poll() {
+		final int totalCost = minTotalCost();
+		final LongStack[] bucket = buckets[totalCost];
+		for (int pastCost=bucket.length; pastCost-->0; ) {
+			final LongStack stack = bucket[pastCost];
+			if (stack==null || stack.isEmpty()) continue;
+			--bucketSizes[totalCost];
+			--size;
+			lastPastCost = pastCost;
+			lastTotalCost = totalCost;
+			return stack.pop();
+		}
+		throw new AssertionError("Inconsistent bucket sizes");
+	}
+
+	/** Return the past cost of the last polled value. */
+	int lastPastCost() {
+		return lastPastCost;
+	}
+
+	/** Return the total cost of the last polled value. */
+	int lastTotalCost() {
+		return lastTotalCost;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/** Remove all entries, keeping the allocated stacks. */
+	void clear() {
+		for (final LongStack[] bucket : buckets) {
+			if (bucket == null) continue;
+			for (final LongStack stack : bucket) {
+				if (stack != null) stack.clear();
+			}
+		}
+		Arrays.fill(bucketSizes, 0);
+		minTotalCost = 0;
+		size = 0;
+	}
+
+	/** Return an independent copy, preserving the order of the entries. */
+	LongBucketQueue copy() {
+		final LongBucketQueue result = new LongBucketQueue();
+		result.buckets = new LongStack[buckets.length][];
+		for (int totalCost=0; totalCost<buckets.length; ++totalCost) {
+			final LongStack[] bucket = buckets[totalCost];
+			if (bucket == null) continue;
+			result.buckets[totalCost] = new LongStack[bucket.length];
+			for (int pastCost=0; pastCost<bucket.length; ++pastCost) {
+				if (bucket[pastCost] != null) result.buckets[totalCost][pastCost] = bucket[pastCost].copy();
+			}
+		}
+		result.bucketSizes = bucketSizes.clone();
+		result.minTotalCost = minTotalCost;
+		result.size = size;
+		return result;
+	}
+
+	/** An exclusive limit on the total cost, way above what any reasonable puzzle needs. */
+	static final int MAX_COST = 256;
+
+	private LongStack[][] buckets = new LongStack[0][];
+	private int[] bucketSizes = new int[0];
+	private int minTotalCost;
+	private int size;
+
+	private int lastPastCost;
+	private int lastTotalCost;
+}
@@ -0,0 +1,42 @@
+package maaartin.pazl;
+
+import lombok.Getter;
+
+/** An implementation of {@link ClosedSet} for boards supporting {@link Board#toLong()}. */
+final class LongClosedSet<B extends Board<B>> implements ClosedSet<B> {
+	LongClosedSet() {
+		this(new LongCostMap());
+	}
+
+	/** Create a set backed by the given map from the board codes to the past costs. */
+	LongClosedSet(LongCostMap map) {
+		this.map = map;
+	}
+
+	@Override public boolean offer(B board, int pastCost) {
+		return offer(board.toLong(), pastCost);
+	}
+
+	/** Like {@link #offer(Board, int)}, but for a board given by its {@link Board#toLong()} code. */
+	boolean offer(long code, int pastCost) {
+		final int oldPastCost = map.get(code);
+		if (oldPastCost!=LongCostMap.ABSENT && oldPastCost <= pastCost) return false;
+		map.put(code, pastCost);
+		return true;
+	}
+
+	@Override public int pastCost(B board) {
+		return map.get(board.toLong());
+	}
+
+	@Override public int size() {
+		return map.size();
+	}
+
+	@Override public void clear() {
+		map.clear();
+	}
+
+	/** The map from the board codes to the past costs. */
+	@Getter private final LongCostMap map;
+}
@@ -0,0 +1,143 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from non-zero longs to small non-negative costs.
+ *
+ * <p>This is a replacement for a {@code Map<B, Node<B>>} when the boards can be encoded as longs,
+ * see {@link Board#toLong()}.
+ * Every slot takes just 9 bytes, so that an entry takes between 12 and 24 bytes depending on the load
+ * (as opposed to well over 100 bytes for a {@code HashMap} entry with its key and value).
+ *
+ * <p>The zero key is reserved for marking empty slots.
+ */
+final class LongCostMap {
+	LongCostMap() {
+		this(MIN_CAPACITY);
+	}
+
+	LongCostMap(int expectedSize) {
+		checkArgument(expectedSize >= 0);
+		int capacity = MIN_CAPACITY;
+		while (capacity < MAX_CAPACITY && LOAD_DENOMINATOR * expectedSize >= LOAD_NUMERATOR * capacity) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	/** Return the cost associated with {@code key} or {@link #ABSENT}. */
+	int get(long key) {
+		checkArgument(key != 0);
+		for (int slot=slot(key); ; slot = (slot+1) & mask) {
+			final long k = keys[slot];
+			if (k == key) return costs[slot] & 0xFF;
+			if (k == 0) return ABSENT;
+		}
+	}
+
+	/** Associate {@code cost} with {@code key} and return the previously associated cost or {@link #ABSENT}. */
+	int put(long key, int cost) {
+		checkArgument(key != 0);
+		checkArgument(0 <= cost && cost <= MAX_COST);
+		int slot = slot(key);
+		for (; ; slot = (slot+1) & mask) {
+			final long k = keys[slot];
+			if (k == key) {
+				final int result = costs[slot] & 0xFF;
+				costs[slot] = (byte) cost;
+				return result;
+			}
+			if (k == 0) break;
+		}
+		keys[slot] = key;
+		costs[slot] = (byte) cost;
+		if (++size > threshold) grow();
+		return ABSENT;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/** Remove all entries, keeping the capacity. */
+	void clear() {
+		Arrays.fill(keys, 0);
+		size = 0;
+	}
+
+	/** Return the number of slots, which is useful for estimating the memory consumption. */
+	int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * Return the key stored in the given slot or zero if the slot is empty. This allows iterating over all entries.
+	 */
+	long keyAt(int slot) {
+		return keys[slot];
+	}
+
+	/** Return the cost stored in the given slot, which must not be empty. */
+	int costAt(int slot) {
+		return costs[slot] & 0xFF;
+	}
+
+	/** Return an independent copy, which takes just two array copies. */
+	LongCostMap copy() {
+		final LongCostMap result = new LongCostMap();
+		result.keys = keys.clone();
+		result.costs = costs.clone();
+		result.mask = mask;
+		result.shift = shift;
+		result.threshold = threshold;
+		result.size = size;
+		return result;
+	}
+
+	private void grow() {
+		checkState(keys.length < MAX_CAPACITY, "Too many entries: %s", size);
+		final long[] oldKeys = keys;
+		final byte[] oldCosts = costs;
+		allocate(2 * oldKeys.length);
+		for (int i=0; i<oldKeys.length; ++i) {
+			final long key = oldKeys[i];
+			if (key == 0) continue;
+			int slot = slot(key);
+			while (keys[slot] != 0) slot = (slot+1) & mask;
+			keys[slot] = key;
+			costs[slot] = oldCosts[i];
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		costs = new byte[capacity];
+		mask = capacity - 1;
+		shift = Long.numberOfLeadingZeros(mask);
+		threshold = (int) ((long) LOAD_NUMERATOR * capacity / LOAD_DENOMINATOR);
+	}
+
+	private int slot(long key) {
+		// Fibonacci hashing, using the high bits of the product as they depend on all input bits.
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift) & mask;
+	}
+
+	static final int ABSENT = -1;
+	static final int MAX_COST = 255;
+
+	private static final int MIN_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+	private static final int LOAD_NUMERATOR = 3;
+	private static final int LOAD_DENOMINATOR = 4;
+
+	private long[] keys;
+	private byte[] costs;
+	private int mask;
+	private int shift;
+	private int threshold;
+	private int size;
+}
@@ -0,0 +1,48 @@
+package maaartin.pazl;
+
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.collect.Maps;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("boxing")
+public class LongCostMapTest extends TestCase {
+	public void testPutAndGet() {
+		final LongCostMap map = new LongCostMap();
+		assertEquals(LongCostMap.ABSENT, map.get(42));
+		assertEquals(LongCostMap.ABSENT, map.put(42, 7));
+		assertEquals(7, map.get(42));
+		assertEquals(7, map.put(42, LongCostMap.MAX_COST));
+		assertEquals(LongCostMap.MAX_COST, map.get(42));
+		assertEquals(1, map.size());
+	}
+
+	public void testZeroKey() {
+		final LongCostMap map = new LongCostMap();
+		try {
+			map.put(0, 1);
+			fail();
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testAgainstHashMap() {
+		final Random random = new Random(42);
+		final LongCostMap map = new LongCostMap();
+		final Map<Long, Integer> expected = Maps.newHashMap();
+		for (int i=0; i<100_000; ++i) {
+			// Use a small key range in order to get some repetitions.
+			final long key = (random.nextInt(50_000) + 1) * 0x0123_4567_89AB_CDEFL;
+			final int cost = random.nextInt(LongCostMap.MAX_COST + 1);
+			final Integer old = expected.put(key, cost);
+			assertEquals(old==null ? LongCostMap.ABSENT : old, map.put(key, cost));
+		}
+		assertEquals(expected.size(), map.size());
+		for (final Map.Entry<Long, Integer> e : expected.entrySet()) {
+			assertEquals((int) e.getValue(), map.get(e.getKey()));
+		}
+	}
+}
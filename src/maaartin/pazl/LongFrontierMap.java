@@ -0,0 +1,167 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from non-zero longs to the data {@link FrontierSolver} keeps for every open board:
+ * its past cost, the mask of its used moves and its relay, given by an index in a table kept by the solver.
+ *
+ * <p>Unlike {@link LongCostMap}, it supports removal, which uses backward-shift deletion, so that no tombstones
+ * accumulate while the frontier moves through the search space. Every slot takes {@value #SLOT_BYTES} bytes.
+ *
+ * <p>The zero key is reserved for marking empty slots.
+ */
+final class LongFrontierMap {
+	LongFrontierMap() {
+		allocate(MIN_CAPACITY);
+	}
+
+	/** Return the slot containing {@code key} or {@link #ABSENT}. */
+	int find(long key) {
+		checkArgument(key != 0);
+		for (int slot=slot(key); ; slot = (slot+1) & mask) {
+			final long k = keys[slot];
+			if (k == key) return slot;
+			if (k == 0) return ABSENT;
+		}
+	}
+
+	/**
+	 * Associate the data with {@code key}. If already present, the used moves get combined with the stored ones.
+	 *
+	 * @param usedMoves a mask of {@link Board#MAX_CHILDREN} bits, with bit {@code i} meaning that the child at
+	 *     position {@code i} of {@link Board#childCodes(long[])} needn't be generated
+	 */
+	void put(long key, int pastCost, int usedMoves, int relay) {
+		checkArgument(key != 0);
+		checkArgument(0 <= pastCost && pastCost <= MAX_COST);
+		checkArgument((usedMoves & ~MOVES_MASK) == 0);
+		int slot = slot(key);
+		for (; ; slot = (slot+1) & mask) {
+			final long k = keys[slot];
+			if (k == key) {
+				usedMoves |= usedMovesAt(slot);
+				break;
+			}
+			if (k == 0) {
+				keys[slot] = key;
+				if (++size > threshold) {
+					grow();
+					slot = find(key);
+				}
+				break;
+			}
+		}
+		relays[slot] = relay;
+		values[slot] = (short) (pastCost | usedMoves << USED_MOVES_SHIFT);
+	}
+
+	/** Mark the move given by its position in {@link Board#childCodes(long[])} as used for the key in the slot. */
+	void markUsedAt(int slot, int move) {
+		assert 0 <= move && move < Board.MAX_CHILDREN;
+		values[slot] |= (short) (1 << (move + USED_MOVES_SHIFT));
+	}
+
+	/** Return the past cost stored in the given slot, which must not be empty. */
+	int pastCostAt(int slot) {
+		return values[slot] & 0xFF;
+	}
+
+	/** Return the mask of used moves stored in the given slot, which must not be empty. */
+	int usedMovesAt(int slot) {
+		return (values[slot] & 0xFFFF) >>> USED_MOVES_SHIFT;
+	}
+
+	/** Return the relay stored in the given slot, which must not be empty. */
+	int relayAt(int slot) {
+		return relays[slot];
+	}
+
+	/** Remove the entry in the given slot, which must not be empty. This moves some other entries to other slots. */
+	void removeAt(int slot) {
+		checkArgument(keys[slot] != 0);
+		int hole = slot;
+		for (int i=(hole+1) & mask; keys[i] != 0; i = (i+1) & mask) {
+			// The entry may fill the hole unless its home slot lies cyclically between the hole and its slot.
+			if (((i - slot(keys[i])) & mask) < ((i - hole) & mask)) continue;
+			keys[hole] = keys[i];
+			relays[hole] = relays[i];
+			values[hole] = values[i];
+			hole = i;
+		}
+		keys[hole] = 0;
+		--size;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/** Remove all entries, keeping the capacity. */
+	void clear() {
+		Arrays.fill(keys, 0);
+		size = 0;
+	}
+
+	/** Return the number of slots, which is useful for estimating the memory consumption. */
+	int capacity() {
+		return keys.length;
+	}
+
+	private void grow() {
+		checkState(keys.length < MAX_CAPACITY, "Too many entries: %s", size);
+		final long[] oldKeys = keys;
+		final int[] oldRelays = relays;
+		final short[] oldValues = values;
+		allocate(2 * oldKeys.length);
+		for (int i=0; i<oldKeys.length; ++i) {
+			final long key = oldKeys[i];
+			if (key == 0) continue;
+			int slot = slot(key);
+			while (keys[slot] != 0) slot = (slot+1) & mask;
+			keys[slot] = key;
+			relays[slot] = oldRelays[i];
+			values[slot] = oldValues[i];
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		relays = new int[capacity];
+		values = new short[capacity];
+		mask = capacity - 1;
+		shift = Long.numberOfLeadingZeros(mask);
+		threshold = (int) ((long) LOAD_NUMERATOR * capacity / LOAD_DENOMINATOR);
+	}
+
+	private int slot(long key) {
+		// Fibonacci hashing, using the high bits of the product as they depend on all input bits.
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift) & mask;
+	}
+
+	static final int ABSENT = -1;
+	static final int MAX_COST = 255;
+	/** The size of the key, the relay and the packed values. */
+	static final int SLOT_BYTES = 14;
+
+	private static final int USED_MOVES_SHIFT = 8;
+	private static final int MOVES_MASK = (1 << Board.MAX_CHILDREN) - 1;
+
+	private static final int MIN_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+	private static final int LOAD_NUMERATOR = 3;
+	private static final int LOAD_DENOMINATOR = 4;
+
+	private long[] keys;
+	/** The relays, see {@link FrontierSolver}. */
+	private int[] relays;
+	/** The past cost in bits 0 to 7 and the used moves above. */
+	private short[] values;
+	private int mask;
+	private int shift;
+	private int threshold;
+	private int size;
+}
@@ -0,0 +1,64 @@
+package maaartin.pazl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("boxing")
+public class LongFrontierMapTest extends TestCase {
+	public void testPutAndGet() {
+		final LongFrontierMap map = new LongFrontierMap();
+		assertEquals(LongFrontierMap.ABSENT, map.find(42));
+		map.put(42, 7, 1, 43);
+		final int slot = map.find(42);
+		assertEquals(7, map.pastCostAt(slot));
+		assertEquals(1, map.usedMovesAt(slot));
+		assertEquals(43, map.relayAt(slot));
+		map.markUsedAt(slot, 3);
+		assertEquals(9, map.usedMovesAt(slot));
+		// The used moves get combined, everything else gets replaced.
+		map.put(42, LongFrontierMap.MAX_COST, 2, -1);
+		assertEquals(slot, map.find(42));
+		assertEquals(LongFrontierMap.MAX_COST, map.pastCostAt(slot));
+		assertEquals(11, map.usedMovesAt(slot));
+		assertEquals(-1, map.relayAt(slot));
+		assertEquals(1, map.size());
+		map.removeAt(slot);
+		assertEquals(LongFrontierMap.ABSENT, map.find(42));
+		assertEquals(0, map.size());
+	}
+
+	public void testAgainstHashMap() {
+		final Random random = new Random(42);
+		final LongFrontierMap map = new LongFrontierMap();
+		final Map<Long, Integer> expected = Maps.newHashMap();
+		final List<Long> keys = Lists.newArrayList();
+		for (int i=0; i<200_000; ++i) {
+			// Use a small key range in order to get some repetitions and long probe sequences after many removals.
+			final long key = (random.nextInt(20_000) + 1) * 0x0123_4567_89AB_CDEFL;
+			if (random.nextInt(3) == 0 && expected.containsKey(key)) {
+				assertEquals((int) expected.remove(key), map.pastCostAt(map.find(key)));
+				map.removeAt(map.find(key));
+			} else {
+				final int cost = random.nextInt(LongFrontierMap.MAX_COST + 1);
+				if (expected.put(key, cost) == null) keys.add(key);
+				map.put(key, cost, 0, (int) ~key);
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for (final long key : keys) {
+			final int slot = map.find(key);
+			if (!expected.containsKey(key)) {
+				assertEquals(LongFrontierMap.ABSENT, slot);
+				continue;
+			}
+			assertEquals((int) expected.get(key), map.pastCostAt(slot));
+			assertEquals((int) ~key, map.relayAt(slot));
+		}
+	}
+}
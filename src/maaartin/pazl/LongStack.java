@@ -0,0 +1,48 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+
+/** A growable stack of primitive longs. */
+final class LongStack {
+	void push(long value) {
+		if (size == data.length) data = Arrays.copyOf(data, Math.max(MIN_CAPACITY, 2 * size));
+		data[size++] = value;
+	}
+
+	long pop() {
+		checkState(size > 0);
+		return data[--size];
+	}
+
+	long get(int index) {
+		checkElementIndex(index, size);
+		return data[index];
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	void clear() {
+		size = 0;
+	}
+
+	LongStack copy() {
+		final LongStack result = new LongStack();
+		result.data = Arrays.copyOf(data, size);
+		result.size = size;
+		return result;
+	}
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] data = new long[0];
+	private int size;
+}
@@ -0,0 +1,45 @@
+package maaartin.pazl;
+
+/** The manhattan distance, equivalent to {@link FifteenBoard#distanceTo(FifteenBoard)}. */
+final class ManhattanHeuristic extends FifteenHeuristic {
+	ManhattanHeuristic(FifteenBoard goal) {
+		super(goal);
+		goalPieceToIndex = goal.pieceToIndex;
+		deltas = new byte[16 * 16 * 16];
+		for (int piece=1; piece<16; ++piece) {
+			final int goalIndex = goal.pieceToIndex(piece);
+			for (int from=0; from<16; ++from) {
+				for (int to=0; to<16; ++to) {
+					deltas[deltaIndex(piece, from, to)] = (byte) (distance(to, goalIndex)
+							- distance(from, goalIndex));
+				}
+			}
+		}
+	}
+
+	private static int distance(int index1, int index2) {
+		final int colDiff = Math.abs(FifteenBoard.indexToCol(index1) - FifteenBoard.indexToCol(index2));
+		final int rowDiff = Math.abs(FifteenBoard.indexToRow(index1) - FifteenBoard.indexToRow(index2));
+		return colDiff + rowDiff;
+	}
+
+	private static int deltaIndex(int piece, int from, int to) {
+		return (piece << 8) + (from << 4) + to;
+	}
+
+	@Override int distance(long indexToPiece, long pieceToIndex) {
+		return FifteenBoard.manhattanDistance(pieceToIndex, goalPieceToIndex);
+	}
+
+	@Override int childDistance(int parentDistance, int piece, int from, int to,
+			long childIndexToPiece, long childPieceToIndex) {
+		return parentDistance + deltas[deltaIndex(piece, from, to)];
+	}
+
+	private final long goalPieceToIndex;
+	/**
+	 * The change of the distance caused by moving a piece between two indexes, see
+	 * {@link #deltaIndex(int, int, int)}.
+	 */
+	private final byte[] deltas;
+}
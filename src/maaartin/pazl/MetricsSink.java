@@ -0,0 +1,7 @@
+package maaartin.pazl;
+
+/** A consumer of {@link MetricsSnapshot}s, see {@link Reporter#addSink(MetricsSink)}. */
+interface MetricsSink {
+	/** Called periodically and for every event other than {@link EventType#NOTHING}. */
+	void accept(MetricsSnapshot snapshot);
+}
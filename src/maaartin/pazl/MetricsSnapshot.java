@@ -0,0 +1,34 @@
+package maaartin.pazl;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** The state of {@link SearchMetrics} at some point of time, possibly caused by an event. */
+@Getter @RequiredArgsConstructor(access=AccessLevel.PACKAGE) final class MetricsSnapshot {
+	/** Return the number of expansions per second since the start of the search. */
+	double expansionsPerSecond() {
+		return elapsedNanos==0 ? 0 : 1e9 * expansions / elapsedNanos;
+	}
+
+	/** The event causing the snapshot or {@link EventType#NOTHING} for a periodic snapshot. */
+	private final EventType type;
+	/** The wall-clock time as given by {@link System#currentTimeMillis()}. */
+	private final long timestampMillis;
+	private final long elapsedNanos;
+	/** The step as reported by the solver. */
+	private final long step;
+	/** The total cost of the node belonging to the event or -1. */
+	private final int cost;
+
+	private final long expansions;
+	private final long generated;
+	private final long staleSkips;
+	private final int openSize;
+	private final int closedSize;
+	/** The solution length minus the heuristic value of the start board or -1 if not solved yet. */
+	private final int heuristicError;
+	private final long heapUsed;
+	/** The number of expanded nodes per total cost. The array must not be modified. */
+	private final long[] totalCostHistogram;
+}
@@ -0,0 +1,332 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.Getter;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
+
+/**
+ * A finite-state machine pruning move sequences that are known to lead to a board reachable by a preferable
+ * sequence, after Taylor and Korf. It generalizes the usual rule of not undoing the last move to eliminating e.g.
+ * the 12-move rotations of a 2x2 block or the different orders of commuting moves.
+ *
+ * <p>A move is given by its direction, i.e., the change of the empty field position. A sequence of moves gets
+ * pruned if it contains a duplicate, i.e., a sequence having the same effect as a shorter or lexicographically
+ * smaller one, which is legal whenever the duplicate is. As this order is compatible with concatenation,
+ * the least sequence leading to any board never gets pruned, so all boards stay reachable by a shortest path.
+ *
+ * <p>The duplicates are found by {@link #generate(int, int)}, which enumerates the sequences up to a given length.
+ * Two sequences have the same effect iff they lead to the same board when started anywhere. The least sequence
+ * is legal whenever the duplicate is, when its empty field path fits in the bounding box of the duplicate's path.
+ * The duplicates get compiled into an Aho-Corasick automaton, which gets minimized and stored as a table
+ * of transitions indexed by the state and the direction.
+ */
+final class MoveAutomaton {
+	private MoveAutomaton(int size, int maxLength, short[] transitions) {
+		this.size = size;
+		this.maxLength = maxLength;
+		this.transitions = transitions;
+	}
+
+	/**
+	 * Return the automaton for the {@link FifteenBoard} using duplicates up to {@value #STANDARD_MAX_LENGTH} moves.
+	 */
+	static MoveAutomaton standard() {
+		return STANDARD.get();
+	}
+
+	/**
+	 * Find all duplicate sequences of up to {@code maxLength} moves on a square board of the given size
+	 * and return the automaton pruning them.
+	 */
+	static MoveAutomaton generate(int size, int maxLength) {
+		checkArgument(size >= 2);
+		checkArgument(maxLength >= 2);
+		final List<String> duplicates = new Generator(size, maxLength).duplicates();
+		return new MoveAutomaton(size, maxLength, minimize(ahoCorasick(duplicates)));
+	}
+
+	/** Return the state after the move in the given direction or {@link #PRUNED} if the move shouldn't be made. */
+	int next(int state, int direction) {
+		return transitions[DIRECTIONS*state + direction];
+	}
+
+	/**
+	 * Return the direction of the move of the empty field from {@code emptyIndex} to the neighboring {@code index}.
+	 */
+	int direction(int emptyIndex, int index) {
+		final int diff = index - emptyIndex;
+		return diff == -size ? 0 : diff == size ? 1 : diff == -1 ? 2 : 3;
+	}
+
+	/** Return the number of states, with {@link #START} being the state before the first move. */
+	int stateCount() {
+		return transitions.length / DIRECTIONS;
+	}
+
+	@SuppressWarnings("boxing") @Override public String toString() {
+		return String.format("%dx%d moves, duplicates up to %d moves, %d states",
+				size, size, maxLength, stateCount());
+	}
+
+	/** Enumerates the move sequences in the order of length and lexicographically, collecting the duplicates. */
+	private static final class Generator {
+		Generator(int size, int maxLength) {
+			this.size = size;
+			this.maxLength = maxLength;
+			// A legal sequence moves the empty field by at most size-1 in every direction from the start in the
+			// center.
+			width = 2*size - 1;
+			start = new int[width * width];
+			for (int i=0; i<start.length; ++i) start[i] = i;
+		}
+
+		List<String> duplicates() {
+			final List<Sequence> leaves =
+					Lists.newArrayList(new Sequence("", size-1, size-1, size-1, size-1, size-1, size-1));
+			survivors.put(key(start), Lists.newArrayList(leaves));
+			for (int length=1; length<=maxLength; ++length) {
+				final List<Sequence> nextLeaves = Lists.newArrayList();
+				for (final Sequence sequence : leaves) {
+					for (int direction=0; direction<DIRECTIONS; ++direction) {
+						final Sequence child = sequence.child(direction);
+						if (child != null && add(child)) nextLeaves.add(child);
+					}
+				}
+				leaves.clear();
+				leaves.addAll(nextLeaves);
+			}
+			return duplicates;
+		}
+
+		/** Return true if the sequence contains no duplicate. Otherwise, add it to the duplicates, if needed. */
+		private boolean add(Sequence sequence) {
+			// All other proper substrings have been checked already, as they're part of the parent.
+			for (int i=1; i<sequence.moves.length(); ++i) {
+				if (duplicateSet.contains(sequence.moves.substring(i))) return false;
+			}
+			final String key = key(sequence.board());
+			List<Sequence> list = survivors.get(key);
+			if (list == null) {
+				list = Lists.newArrayList();
+				survivors.put(key, list);
+			}
+			for (final Sequence other : list) {
+				if (sequence.contains(other)) {
+					duplicates.add(sequence.moves);
+					duplicateSet.add(sequence.moves);
+					return false;
+				}
+			}
+			list.add(sequence);
+			return true;
+		}
+
+		private static String key(int[] board) {
+			final StringBuilder result = new StringBuilder(board.length);
+			for (final int x : board) result.append((char) x);
+			return result.toString();
+		}
+
+		/** A sequence of moves, together with the bounding box of the empty field positions on the grid. */
+		private final class Sequence {
+			Sequence(String moves, int col, int row, int minCol, int maxCol, int minRow, int maxRow) {
+				this.moves = moves;
+				this.col = col;
+				this.row = row;
+				this.minCol = minCol;
+				this.maxCol = maxCol;
+				this.minRow = minRow;
+				this.maxRow = maxRow;
+			}
+
+			/** Return the sequence extended by the given move or null if it'd exceed the board. */
+			Sequence child(int direction) {
+				final int c = col + COL_DIFFS[direction];
+				final int r = row + ROW_DIFFS[direction];
+				final int minC = Math.min(minCol, c);
+				final int maxC = Math.max(maxCol, c);
+				final int minR = Math.min(minRow, r);
+				final int maxR = Math.max(maxRow, r);
+				if (maxC - minC >= size || maxR - minR >= size) return null;
+				return new Sequence(moves + (char) ('0' + direction), c, r, minC, maxC, minR, maxR);
+			}
+
+			/** Return the grid after applying the moves, with every field containing its original position. */
+			int[] board() {
+				final int[] result = start.clone();
+				int empty = (size-1) * (width+1);
+				for (int i=0; i<moves.length(); ++i) {
+					final int direction = moves.charAt(i) - '0';
+					final int index = empty + width*COL_DIFFS[direction] + ROW_DIFFS[direction];
+					result[empty] = result[index];
+					result[index] = start[(size-1) * (width+1)];
+					empty = index;
+				}
+				return result;
+			}
+
+			/** Return true if the bounding box of {@code other} lies within the bounding box of {@code this}. */
+			boolean contains(Sequence other) {
+				return minCol <= other.minCol && other.maxCol <= maxCol
+						&& minRow <= other.minRow && other.maxRow <= maxRow;
+			}
+
+			final String moves;
+			final int col;
+			final int row;
+			final int minCol;
+			final int maxCol;
+			final int minRow;
+			final int maxRow;
+		}
+
+		private final int size;
+		private final int maxLength;
+		private final int width;
+		/** The grid before any move, where every field contains its position. */
+		private final int[] start;
+
+		/** The sequences containing no duplicates grouped by their effect, in the order of their generation. */
+		private final Map<String, List<Sequence>> survivors = Maps.newHashMap();
+		private final List<String> duplicates = Lists.newArrayList();
+		private final Set<String> duplicateSet = Sets.newHashSet();
+	}
+
+	/**
+	 * Return the transitions of the Aho-Corasick automaton pruning all sequences containing one of the given
+	 * strings of directions. As no string contains another one, a move gets pruned iff it completes a string.
+	 */
+	private static int[] ahoCorasick(List<String> duplicates) {
+		// Build the trie of all prefixes, with the empty prefix as state 0.
+		final List<int[]> trie = Lists.newArrayList();
+		final List<Boolean> terminal = Lists.newArrayList();
+		trie.add(newState());
+		terminal.add(Boolean.FALSE);
+		for (final String s : duplicates) {
+			int state = 0;
+			for (int i=0; i<s.length(); ++i) {
+				final int direction = s.charAt(i) - '0';
+				if (trie.get(state)[direction] == PRUNED) {
+					trie.get(state)[direction] = trie.size();
+					trie.add(newState());
+					terminal.add(Boolean.FALSE);
+				}
+				state = trie.get(state)[direction];
+			}
+			terminal.set(state, Boolean.TRUE);
+		}
+		// Complete the transitions in breadth-first order using the failure links.
+		final int count = trie.size();
+		final int[] failure = new int[count];
+		final int[] result = new int[DIRECTIONS * count];
+		final int[] queue = new int[count];
+		int size = 0;
+		queue[size++] = 0;
+		for (int head=0; head<size; ++head) {
+			final int state = queue[head];
+			for (int direction=0; direction<DIRECTIONS; ++direction) {
+				final int child = trie.get(state)[direction];
+				final int fallback = state == 0 ? 0 : result[DIRECTIONS*failure[state] + direction];
+				if (child == PRUNED) {
+					result[DIRECTIONS*state + direction] = fallback;
+				} else {
+					result[DIRECTIONS*state + direction] = child;
+					failure[child] = fallback;
+					queue[size++] = child;
+				}
+			}
+		}
+		for (int i=0; i<result.length; ++i) {
+			if (terminal.get(result[i])) result[i] = PRUNED;
+		}
+		return result;
+	}
+
+	private static int[] newState() {
+		final int[] result = new int[DIRECTIONS];
+		Arrays.fill(result, PRUNED);
+		return result;
+	}
+
+	/**
+	 * Merge the equivalent states by partition refinement and return the transitions of the minimal automaton.
+	 * The terminal states are unreachable, so that all remaining states are accepting.
+	 */
+	private static short[] minimize(int[] transitions) {
+		final int count = transitions.length / DIRECTIONS;
+		int[] classes = new int[count];
+		for (int classCount=1; ; ) {
+			final Map<List<Integer>, Integer> signatures = Maps.newHashMap();
+			final int[] nextClasses = new int[count];
+			// Number the classes in the order of their first state, so that the start state stays 0.
+			for (int state=0; state<count; ++state) {
+				final List<Integer> signature = signature(transitions, classes, state);
+				Integer c = signatures.get(signature);
+				if (c == null) {
+					c = signatures.size();
+					signatures.put(signature, c);
+				}
+				nextClasses[state] = c;
+			}
+			classes = nextClasses;
+			if (signatures.size() == classCount) break;
+			classCount = signatures.size();
+		}
+		final int classCount = Ints.max(classes) + 1;
+		checkArgument(classCount <= Short.MAX_VALUE, "Too many states: %s", classCount);
+		final short[] result = new short[DIRECTIONS * classCount];
+		for (int state=0; state<count; ++state) {
+			for (int direction=0; direction<DIRECTIONS; ++direction) {
+				final int next = transitions[DIRECTIONS*state + direction];
+				result[DIRECTIONS*classes[state] + direction] = (short) (next == PRUNED ? PRUNED : classes[next]);
+			}
+		}
+		return result;
+	}
+
+	@SuppressWarnings("boxing") private static List<Integer> signature(int[] transitions, int[] classes, int state) {
+		final List<Integer> result = Lists.newArrayListWithCapacity(DIRECTIONS + 1);
+		result.add(classes[state]);
+		for (int direction=0; direction<DIRECTIONS; ++direction) {
+			final int next = transitions[DIRECTIONS*state + direction];
+			result.add(next == PRUNED ? PRUNED : classes[next]);
+		}
+		return result;
+	}
+
+	/** The state before the first move. */
+	static final int START = 0;
+	/** The value of {@link #next(int, int)} for moves which shouldn't be made. */
+	static final int PRUNED = -1;
+	/** The number of directions, which are ordered like in {@link FifteenBoard#NEIGHBORS}. */
+	static final int DIRECTIONS = 4;
+
+	/** The maximum length of the duplicates used by {@link #standard()}. */
+	static final int STANDARD_MAX_LENGTH = 14;
+
+	private static final int[] COL_DIFFS = {-1, +1, 0, 0};
+	private static final int[] ROW_DIFFS = {0, 0, -1, +1};
+
+	private static final Supplier<MoveAutomaton> STANDARD = Suppliers.memoize(new Supplier<MoveAutomaton>() {
+		@Override public MoveAutomaton get() {
+			return generate(4, STANDARD_MAX_LENGTH);
+		}
+	});
+
+	@Getter private final int size;
+	@Getter private final int maxLength;
+	/** The next state indexed by {@code DIRECTIONS*state + direction}. */
+	private final short[] transitions;
+}
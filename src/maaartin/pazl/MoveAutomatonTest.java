@@ -0,0 +1,93 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import junit.framework.TestCase;
+
+public class MoveAutomatonTest extends TestCase {
+	public void testNoReversal() {
+		final MoveAutomaton automaton = MoveAutomaton.generate(4, 2);
+		assertEquals(5, automaton.stateCount());
+		for (int direction=0; direction<MoveAutomaton.DIRECTIONS; ++direction) {
+			final int state = automaton.next(MoveAutomaton.START, direction);
+			assertTrue(state != MoveAutomaton.PRUNED);
+			for (int next=0; next<MoveAutomaton.DIRECTIONS; ++next) {
+				// The directions come in pairs of opposites.
+				final boolean isReversal = (next ^ 1) == direction;
+				assertEquals(isReversal, automaton.next(state, next) == MoveAutomaton.PRUNED);
+			}
+		}
+	}
+
+	public void testRotation() {
+		final MoveAutomaton automaton = MoveAutomaton.generate(4, 8);
+		// Move the empty field around a 2x2 block. Two rotations equal one rotation in the opposite direction.
+		final int[] rotation = {1, 3, 0, 2};
+		int state = MoveAutomaton.START;
+		for (int i=0; i<rotation.length; ++i) state = automaton.next(state, rotation[i]);
+		assertTrue(state != MoveAutomaton.PRUNED);
+		for (int i=0; i<rotation.length && state != MoveAutomaton.PRUNED; ++i) {
+			state = automaton.next(state, rotation[i]);
+		}
+		assertEquals(MoveAutomaton.PRUNED, state);
+	}
+
+	public void testDirection() {
+		final MoveAutomaton automaton = MoveAutomaton.generate(4, 2);
+		for (int emptyIndex=0; emptyIndex<16; ++emptyIndex) {
+			final int[] neighbors = FifteenBoard.NEIGHBORS[emptyIndex];
+			for (int i=1; i<neighbors.length; ++i) {
+				assertTrue(automaton.direction(emptyIndex, neighbors[i-1])
+						< automaton.direction(emptyIndex, neighbors[i]));
+			}
+		}
+	}
+
+	@SuppressWarnings("boxing") public void testShortestPaths() {
+		final int maxDepth = 12;
+		final Map<FifteenBoard, Integer> distances = Maps.newHashMap();
+		distances.put(GOAL, 0);
+		List<FifteenBoard> layer = Lists.newArrayList(GOAL);
+		for (int depth=1; depth<=maxDepth; ++depth) {
+			final List<FifteenBoard> nextLayer = Lists.newArrayList();
+			for (final FifteenBoard board : layer) {
+				for (final FifteenBoard child : board.children()) {
+					if (distances.containsKey(child)) continue;
+					distances.put(child, depth);
+					nextLayer.add(child);
+				}
+			}
+			layer = nextLayer;
+		}
+		final MoveAutomaton automaton = MoveAutomaton.generate(4, maxDepth);
+		final Map<FifteenBoard, Integer> prunedDistances = Maps.newHashMap();
+		final long nodes = search(GOAL, automaton, MoveAutomaton.START, 0, maxDepth, prunedDistances);
+		assertEquals(distances, prunedDistances);
+		final long unprunedNodes = search(GOAL, MoveAutomaton.generate(4, 2), MoveAutomaton.START, 0, maxDepth,
+				Maps.<FifteenBoard, Integer>newHashMap());
+		assertTrue(nodes < unprunedNodes);
+	}
+
+	/**
+	 * Search all descendants allowed by the automaton, record their minimum depths and return the number of nodes.
+	 */
+	@SuppressWarnings("boxing") private static long search(FifteenBoard board, MoveAutomaton automaton, int state,
+			int depth, int maxDepth, Map<FifteenBoard, Integer> distances) {
+		final Integer distance = distances.get(board);
+		if (distance == null || distance > depth) distances.put(board, depth);
+		if (depth == maxDepth) return 1;
+		long result = 1;
+		final int[] childStates = new int[4];
+		final List<FifteenBoard> children = board.children(automaton, state, childStates);
+		for (int i=0; i<children.size(); ++i) {
+			result += search(children.get(i), automaton, childStates[i], depth+1, maxDepth, distances);
+		}
+		return result;
+	}
+}
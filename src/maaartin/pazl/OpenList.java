@@ -0,0 +1,14 @@
+package maaartin.pazl;
+
+/** The list of generated, but not yet expanded nodes, ordered by their total cost. */
+interface OpenList<B extends Board<B>> {
+	void add(Node<B> node);
+
+	/** Remove and return a node with the lowest total cost or {@code null} if empty. */
+	Node<B> poll();
+
+	int size();
+
+	/** Remove all nodes, keeping the allocated memory for reuse. */
+	void clear();
+}
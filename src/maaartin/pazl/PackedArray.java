@@ -0,0 +1,115 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import lombok.Getter;
+
+/**
+ * An array of small unsigned values stored off-heap, e.g., a visited set using one bit per state
+ * or a distance table using one nibble per state. The entries are addressed by a long index,
+ * so it can exceed 2**31 entries; the storage consists of direct buffers of up to {@code 2**30} bytes each.
+ * It's meant to be indexed by dense state numbers like the ranks of {@link FifteenRanking}.
+ *
+ * <p>Every value takes {@code bitsPerEntry} bits, which must be 1, 2, 4 or 8, so no entry spans two words.
+ * All entries are initially zero. The class is not thread-safe.
+ */
+final class PackedArray {
+	@SuppressWarnings("boxing") PackedArray(long length, int bitsPerEntry, int chunkShift) {
+		checkArgument(length >= 0);
+		checkArgument(Integer.bitCount(bitsPerEntry) == 1 && bitsPerEntry <= Byte.SIZE,
+				"Unsupported bits: %s", bitsPerEntry);
+		checkArgument(3 <= chunkShift && chunkShift <= MAX_CHUNK_SHIFT);
+		this.length = length;
+		this.bitsPerEntry = bitsPerEntry;
+		this.mask = (1L << bitsPerEntry) - 1;
+		entryShift = Integer.numberOfTrailingZeros(bitsPerEntry);
+		wordShift = chunkShift - 3;
+		final long words = ((length << entryShift) + Long.SIZE - 1) >>> 6;
+		final long chunkWords = 1L << wordShift;
+		final int chunkCount = (int) ((words + chunkWords - 1) >>> wordShift);
+		chunks = new ByteBuffer[chunkCount];
+		for (int i=0; i<chunkCount; ++i) {
+			final long remaining = words - (long) i * chunkWords;
+			final int bytes = (int) (8 * Math.min(remaining, chunkWords));
+			chunks[i] = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+		}
+	}
+
+	/** Create an array of {@code length} zeros with {@code bitsPerEntry} bits per entry. */
+	static PackedArray create(long length, int bitsPerEntry) {
+		return new PackedArray(length, bitsPerEntry, MAX_CHUNK_SHIFT);
+	}
+
+	/** Return the value of the entry at {@code index}. */
+	int get(long index) {
+		checkIndex(index);
+		final long bit = index << entryShift;
+		return (int) ((word(bit) >>> bit) & mask);
+	}
+
+	/** Set the entry at {@code index} to {@code value}, which must fit in {@link #bitsPerEntry()} bits. */
+	void set(long index, int value) {
+		checkIndex(index);
+		checkArgument((value & ~mask) == 0);
+		final long bit = index << entryShift;
+		final long word = word(bit);
+		putWord(bit, (word & ~(mask << bit)) | ((long) value << bit));
+	}
+
+	/**
+	 * Set the entry at {@code index} to {@code value} and return true if it was zero before.
+	 * With one bit per entry, this is the insertion into a visited set.
+	 */
+	boolean setIfZero(long index, int value) {
+		checkIndex(index);
+		checkArgument((value & ~mask) == 0);
+		final long bit = index << entryShift;
+		final long word = word(bit);
+		if ((word & (mask << bit)) != 0) return false;
+		putWord(bit, word | ((long) value << bit));
+		return true;
+	}
+
+	/** Set all entries to zero. */
+	void clear() {
+		for (final ByteBuffer chunk : chunks) {
+			for (int i=0; i<chunk.capacity(); i+=8) chunk.putLong(i, 0);
+		}
+	}
+
+	/** Return the number of bytes of the off-heap storage. */
+	long bytes() {
+		long result = 0;
+		for (final ByteBuffer chunk : chunks) result += chunk.capacity();
+		return result;
+	}
+
+	/** Return the word containing the given bit. Note that shifts use only the low six bits of the distance. */
+	private long word(long bit) {
+		final long word = bit >>> 6;
+		return chunks[(int) (word >>> wordShift)].getLong(8 * (int) (word & ((1L << wordShift) - 1)));
+	}
+
+	private void putWord(long bit, long value) {
+		final long word = bit >>> 6;
+		chunks[(int) (word >>> wordShift)].putLong(8 * (int) (word & ((1L << wordShift) - 1)), value);
+	}
+
+	private void checkIndex(long index) {
+		if (index < 0 || index >= length) throw new IndexOutOfBoundsException(index + " not in [0, " + length + ")");
+	}
+
+	/** The binary logarithm of the maximum number of bytes per chunk. */
+	private static final int MAX_CHUNK_SHIFT = 30;
+
+	@Getter private final long length;
+	@Getter private final int bitsPerEntry;
+	private final long mask;
+	private final int entryShift;
+	/** The binary logarithm of the number of words per chunk. */
+	private final int wordShift;
+	private final ByteBuffer[] chunks;
+}
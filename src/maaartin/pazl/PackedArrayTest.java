@@ -0,0 +1,64 @@
+package maaartin.pazl;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class PackedArrayTest extends TestCase {
+	public void testGetAndSet() {
+		for (final int bits : new int[] {1, 2, 4, 8}) {
+			// Tiny chunks of 64 bytes exercise the chunk addressing.
+			final PackedArray array = new PackedArray(1000, bits, 6);
+			final int[] expected = new int[1000];
+			final Random random = new Random(bits);
+			for (int i=0; i<5000; ++i) {
+				final int index = random.nextInt(expected.length);
+				final int value = random.nextInt(1 << bits);
+				array.set(index, value);
+				expected[index] = value;
+			}
+			for (int i=0; i<expected.length; ++i) assertEquals(expected[i], array.get(i));
+			array.clear();
+			for (int i=0; i<expected.length; ++i) assertEquals(0, array.get(i));
+		}
+	}
+
+	public void testSetIfZero() {
+		final PackedArray visited = PackedArray.create(100, 1);
+		assertTrue(visited.setIfZero(42, 1));
+		assertFalse(visited.setIfZero(42, 1));
+		assertTrue(visited.setIfZero(43, 1));
+		assertEquals(1, visited.get(42));
+		assertEquals(0, visited.get(41));
+	}
+
+	public void testBounds() {
+		final PackedArray array = PackedArray.create(65, 4);
+		assertEquals(40, array.bytes());
+		array.set(64, 15);
+		try {
+			array.get(65);
+			fail();
+		} catch (final IndexOutOfBoundsException e) {
+			// Expected.
+		}
+		try {
+			array.set(0, 16);
+			fail();
+		} catch (final IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+
+	public void testLongIndexes() {
+		// More than 2**31 entries taking 256 MB in sixteen chunks.
+		final long length = (1L << 31) + 10;
+		final PackedArray array = new PackedArray(length, 1, 24);
+		array.set(length - 1, 1);
+		array.set(1L << 31, 1);
+		assertEquals(1, array.get(length - 1));
+		assertEquals(0, array.get(length - 2));
+		assertEquals(1, array.get(1L << 31));
+		assertEquals(0, array.get(0));
+	}
+}
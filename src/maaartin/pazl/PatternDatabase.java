@@ -0,0 +1,218 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import lombok.Getter;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A pattern database for a group of pieces of the {@link FifteenBoard}.
+ * For every placement of the group pieces, it stores the number of moves of these pieces needed to reach the goal.
+ * As moves of other pieces aren't counted, the values of disjoint groups can be added.
+ *
+ * <p>The table gets indexed by the rank of the partial permutation given by the group piece positions,
+ * see {@link FifteenRanking#partialRank(int[])}, and takes one byte per entry.
+ * It gets stored in a file and memory-mapped, so that loading it takes no time.
+ */
+final class PatternDatabase {
+	private PatternDatabase(int[] pieces, ByteBuffer table) {
+		this.pieces = pieces;
+		this.table = table;
+	}
+
+	/** Load the database for the given goal and pieces from {@code directory} or build and save it there. */
+	static PatternDatabase loadOrBuild(FifteenBoard goal, int[] pieces, Path directory, int threads)
+			throws IOException {
+		final Path path = directory.resolve(fileName(goal, pieces));
+		if (!Files.exists(path)) {
+			Files.createDirectories(directory);
+			final Path tmp = directory.resolve(path.getFileName() + ".tmp");
+			save(build(goal, pieces, threads), tmp);
+			Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		return load(pieces, path);
+	}
+
+	/** Memory-map the table stored in {@code path}. */
+	static PatternDatabase load(int[] pieces, Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			checkArgument(channel.size() == FifteenRanking.partialCount(pieces.length), "Wrong size of %s", path);
+			return new PatternDatabase(pieces.clone(),
+					channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/** Return a database living on the heap, which is useful for small groups and tests. */
+	static PatternDatabase create(FifteenBoard goal, int[] pieces, int threads) {
+		return new PatternDatabase(pieces.clone(), ByteBuffer.wrap(build(goal, pieces, threads)));
+	}
+
+	private static void save(byte[] table, Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			final ByteBuffer buffer = ByteBuffer.wrap(table);
+			while (buffer.hasRemaining()) channel.write(buffer);
+		}
+	}
+
+	@SuppressWarnings("boxing") private static String fileName(FifteenBoard goal, int[] pieces) {
+		final StringBuilder result = new StringBuilder("pdb-").append(goal).append('-');
+		for (final int p : pieces) result.append(String.format("%X", p));
+		return result.append(".bin").toString();
+	}
+
+	/**
+	 * Return the number of moves of the group pieces needed for the board given by
+	 * {@link FifteenBoard#pieceToIndex}.
+	 */
+	int distance(long pieceToIndex) {
+		return table.get(FifteenRanking.partialRank(pieceToIndex, pieces));
+	}
+
+	/**
+	 * Compute the table using a backward breadth-first search from the goal over all placements of the group pieces
+	 * and the empty field, with moves of the other pieces being free.
+	 *
+	 * <p>The search state consists of the rank of the piece positions and the region of indexes reachable by the
+	 * empty field using free moves. The region gets represented by its lowest index, so there are no zero-cost edges
+	 * left. The levels get processed by scanning the whole state array in parallel. Concurrent writes are harmless
+	 * as all threads write the same value.
+	 */
+	private static byte[] build(FifteenBoard goal, int[] pieces, int threads) {
+		checkArgument(0 < pieces.length && pieces.length <= MAX_PIECES);
+		int pieceSet = 0;
+		for (final int p : pieces) {
+			checkArgument(0 < p && p < INDEX_LIMIT && (pieceSet & (1<<p)) == 0,
+					"Invalid pieces: %s", Arrays.toString(pieces));
+			pieceSet |= 1 << p;
+		}
+		final int k = pieces.length;
+		final byte[] distances = new byte[FifteenRanking.partialCount(k) * INDEX_LIMIT];
+		Arrays.fill(distances, UNKNOWN);
+
+		final int[] positions = new int[k];
+		int occupied = 0;
+		for (int i=0; i<k; ++i) {
+			positions[i] = goal.pieceToIndex(pieces[i]);
+			occupied |= 1 << positions[i];
+		}
+		final int region = region(goal.pieceToIndex(0), ~occupied & 0xFFFF);
+		distances[FifteenRanking.partialRank(positions) * INDEX_LIMIT + Integer.numberOfTrailingZeros(region)] = 0;
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (int level=0; ; ++level) {
+				final List<Future<Long>> futures = Lists.newArrayList();
+				final int chunk = (distances.length + CHUNKS - 1) / CHUNKS;
+				for (int start=0; start<distances.length; start+=chunk) {
+					futures.add(executor.submit(newLevelTask(distances, k, level, start,
+							Math.min(distances.length, start+chunk))));
+				}
+				long count = 0;
+				for (final Future<Long> f : futures) count += f.get().longValue();
+				if (count == 0) break;
+				checkState(level+1 < UNKNOWN_INT, "Too many levels");
+			}
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e);
+		} finally {
+			executor.shutdown();
+		}
+
+		final byte[] result = new byte[FifteenRanking.partialCount(k)];
+		for (int rank=0; rank<result.length; ++rank) {
+			int min = UNKNOWN_INT;
+			for (int i=0; i<INDEX_LIMIT; ++i) min = Math.min(min, distances[rank * INDEX_LIMIT + i] & 0xFF);
+			result[rank] = (byte) min;
+		}
+		return result;
+	}
+
+	private static Callable<Long> newLevelTask(final byte[] distances, final int k, final int level,
+			final int start, final int end) {
+		return new Callable<Long>() {
+			@SuppressWarnings("boxing") @Override public Long call() {
+				return expandLevel(distances, k, level, start, end);
+			}
+		};
+	}
+
+	/**
+	 * Expand all states having the distance {@code level} in the given range and return the number of new states.
+	 */
+	private static long expandLevel(byte[] distances, int k, int level, int start, int end) {
+		final byte current = (byte) level;
+		final byte next = (byte) (level + 1);
+		final int[] positions = new int[k];
+		long result = 0;
+		for (int state=start; state<end; ++state) {
+			if (distances[state] != current) continue;
+			FifteenRanking.partialUnrank(state / INDEX_LIMIT, positions);
+			int occupied = 0;
+			for (final int p : positions) occupied |= 1 << p;
+			final int free = ~occupied & 0xFFFF;
+			final int region = region(state % INDEX_LIMIT, free);
+			for (int i=0; i<k; ++i) {
+				final int from = positions[i];
+				// Move the piece into any neighboring index of the region, leaving the empty field at its origin.
+				for (int targets = expand(1 << from) & region; targets != 0; targets &= targets - 1) {
+					final int to = Integer.numberOfTrailingZeros(targets);
+					positions[i] = to;
+					final int newRegion = region(from, (free & ~(1 << to)) | (1 << from));
+					final int newState = FifteenRanking.partialRank(positions) * INDEX_LIMIT
+							+ Integer.numberOfTrailingZeros(newRegion);
+					if (distances[newState] == UNKNOWN) {
+						distances[newState] = next;
+						++result;
+					}
+				}
+				positions[i] = from;
+			}
+		}
+		return result;
+	}
+
+	/** Return the set of indexes reachable from {@code index} via {@code free} indexes. */
+	private static int region(int index, int free) {
+		int result = 1 << index;
+		while (true) {
+			final int next = (result | expand(result)) & free;
+			if (next == result) return result;
+			result = next;
+		}
+	}
+
+	/** Return the set of indexes neighboring the given set. */
+	private static int expand(int set) {
+		return ((set << 1) & ~0x1111 | (set >>> 1) & ~0x8888 | set << 4 | set >>> 4) & 0xFFFF;
+	}
+
+	/** The maximum group size keeping the search state array addressable. */
+	static final int MAX_PIECES = 7;
+
+	private static final int INDEX_LIMIT = 16;
+	private static final int CHUNKS = 1024;
+	private static final byte UNKNOWN = (byte) 0xFF;
+	private static final int UNKNOWN_INT = UNKNOWN & 0xFF;
+
+	/** The pieces of the group. The array must not be modified. */
+	@Getter private final int[] pieces;
+	private final ByteBuffer table;
+}
@@ -0,0 +1,110 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/** The additive heuristic given by the sum of {@link PatternDatabase}s for disjoint groups of pieces. */
+final class PatternDatabaseHeuristic extends FifteenHeuristic {
+	private PatternDatabaseHeuristic(FifteenBoard goal, List<PatternDatabase> databases) {
+		super(goal);
+		this.databases = databases.toArray(new PatternDatabase[databases.size()]);
+		pieceToDatabase = new PatternDatabase[16];
+		for (final PatternDatabase database : databases) {
+			for (final int piece : database.pieces()) pieceToDatabase[piece] = database;
+		}
+	}
+
+	/**
+	 * Load or build the databases for the given partition into {@code directory}.
+	 *
+	 * @param partition disjoint groups of goal indexes; the groups consist of the pieces placed there in the goal
+	 */
+	static PatternDatabaseHeuristic loadOrBuild(FifteenBoard goal, List<int[]> partition, Path directory)
+			throws IOException {
+		final List<PatternDatabase> databases = Lists.newArrayList();
+		for (final int[] pieces : toPieces(goal, partition)) {
+			databases.add(PatternDatabase.loadOrBuild(goal, pieces, directory, THREADS));
+		}
+		return new PatternDatabaseHeuristic(goal, databases);
+	}
+
+	/**
+	 * Build the databases for the given partition on the heap, see {@link #loadOrBuild(FifteenBoard, List, Path)}.
+	 */
+	static PatternDatabaseHeuristic create(FifteenBoard goal, List<int[]> partition) {
+		final List<PatternDatabase> databases = Lists.newArrayList();
+		for (final int[] pieces : toPieces(goal, partition)) {
+			databases.add(PatternDatabase.create(goal, pieces, THREADS));
+		}
+		return new PatternDatabaseHeuristic(goal, databases);
+	}
+
+	private static List<int[]> toPieces(FifteenBoard goal, List<int[]> partition) {
+		final List<int[]> result = Lists.newArrayList();
+		int used = 0;
+		for (final int[] indexes : partition) {
+			final int[] pieces = new int[indexes.length];
+			for (int i=0; i<indexes.length; ++i) {
+				checkArgument((used & (1 << indexes[i])) == 0, "The partition is not disjoint");
+				used |= 1 << indexes[i];
+				pieces[i] = goal.indexToPiece(indexes[i]);
+				checkArgument(pieces[i] != 0, "The partition must not contain the empty field");
+			}
+			result.add(pieces);
+		}
+		return result;
+	}
+
+	@Override int distance(long indexToPiece, long pieceToIndex) {
+		return distance(pieceToIndex);
+	}
+
+	/**
+	 * Return the distance of the board given by {@link FifteenBoard#pieceToIndex} alone, as nothing else is needed.
+	 */
+	int distance(long pieceToIndex) {
+		int result = 0;
+		for (final PatternDatabase database : databases) result += database.distance(pieceToIndex);
+		return result;
+	}
+
+	/**
+	 * Only the database containing the moved piece needs to be consulted, and that for both the child and the
+	 * parent.
+	 */
+	@Override int childDistance(int parentDistance, int piece, int from, int to,
+			long childIndexToPiece, long childPieceToIndex) {
+		final PatternDatabase database = pieceToDatabase[piece];
+		if (database == null) return parentDistance;
+		final long indexXor = from ^ to;
+		final long parentPieceToIndex = childPieceToIndex ^ (indexXor << 4*piece) ^ indexXor;
+		return parentDistance + database.distance(childPieceToIndex) - database.distance(parentPieceToIndex);
+	}
+
+	/**
+	 * The 6-6-3 partition of the goal indexes for a goal having the empty field at index 0:
+	 * The rest of the first row and two 3x2 blocks.
+	 */
+	static final ImmutableList<int[]> PARTITION_663 = ImmutableList.of(
+			new int[] {4, 5, 8, 9, 12, 13},
+			new int[] {6, 7, 10, 11, 14, 15},
+			new int[] {1, 2, 3});
+
+	/** The 5-5-5 partition, which is faster to build and smaller, but weaker than {@link #PARTITION_663}. */
+	static final ImmutableList<int[]> PARTITION_555 = ImmutableList.of(
+			new int[] {1, 2, 3, 5, 6},
+			new int[] {4, 8, 9, 12, 13},
+			new int[] {7, 10, 11, 14, 15});
+
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+	private final PatternDatabase[] databases;
+	/** The database containing the given piece or null. */
+	private final PatternDatabase[] pieceToDatabase;
+}
@@ -0,0 +1,55 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
+import junit.framework.TestCase;
+
+public class PatternDatabaseTest extends TestCase {
+	public void testAdmissible() {
+		final PatternDatabaseHeuristic heuristic = PatternDatabaseHeuristic.create(GOAL, PARTITION_33333);
+		final Random random = new Random(42);
+		assertEquals(0, heuristic.distance(GOAL));
+		for (int i=0; i<20; ++i) {
+			final FifteenBoard start = randomWalk(random, 10 + 2*i);
+			final int distance = heuristic.distance(start);
+			assertTrue(distance >= start.distanceTo(GOAL));
+			final int solutionLength = FifteenIdaSolver.create(start, GOAL, Reporter.quiet()).solve();
+			assertTrue(distance <= solutionLength);
+			assertEquals(solutionLength, FifteenIdaSolver.create(start, heuristic, Reporter.quiet()).solve());
+		}
+	}
+
+	public void testLoadOrBuild() throws Exception {
+		final Path directory = Files.createTempDirectory("pdb");
+		try {
+			final PatternDatabaseHeuristic built =
+					PatternDatabaseHeuristic.loadOrBuild(GOAL, PARTITION_33333, directory);
+			assertEquals(PARTITION_33333.size(), directory.toFile().list().length);
+			final PatternDatabaseHeuristic loaded =
+					PatternDatabaseHeuristic.loadOrBuild(GOAL, PARTITION_33333, directory);
+			final Random random = new Random(0);
+			for (int i=0; i<100; ++i) {
+				final FifteenBoard board = randomWalk(random, 50);
+				assertEquals(built.distance(board), loaded.distance(board));
+			}
+		} finally {
+			MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+		}
+	}
+
+	private static final ImmutableList<int[]> PARTITION_33333 = ImmutableList.of(
+			new int[] {1, 2, 3},
+			new int[] {4, 5, 6},
+			new int[] {7, 8, 9},
+			new int[] {10, 11, 12},
+			new int[] {13, 14, 15});
+}
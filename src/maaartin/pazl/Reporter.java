@@ -1,19 +1,59 @@
 package maaartin.pazl;
 
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Receives the events of a search. By default, the events get printed, with {@link EventType#NOTHING} being printed
+ * only once per {@value #PERIOD} steps.
+ *
+ * <p>The solvers also update the {@link #metrics()}, whose snapshots get passed to all added sinks on every event
+ * other than {@link EventType#NOTHING} and once per {@value #PERIOD} steps.
+ */
 public class Reporter {
+	/**
+	 * Return a new reporter printing nothing, which still passes the snapshots to the added sinks.
+	 * Every search needs its own instance, as the metrics are per reporter.
+	 */
+	static Reporter quiet() {
+		return new Reporter() {
+			@Override protected void doOutput(EventType type, long step, Node<?> node) {
+				// Nothing to do.
+			}
+		};
+	}
+
 	public void report(EventType type, long step, Node<?> node) {
 		if (type==EventType.NOTHING && step<nextStep) return;
 		doOutput(type, step, node);
 		nextStep = PERIOD * (step / PERIOD + 1);
+		if (sinks.isEmpty()) return;
+		final MetricsSnapshot snapshot = metrics.snapshot(type, step, node.pastCost() + node.futureCost());
+		for (final MetricsSink sink : sinks) sink.accept(snapshot);
+	}
+
+	/** Add a sink receiving the snapshots of {@link #metrics()}. */
+	Reporter addSink(MetricsSink sink) {
+		sinks.add(sink);
+		return this;
+	}
+
+	/** Return the metrics to be updated by the solver. */
+	SearchMetrics metrics() {
+		return metrics;
 	}
 
+	/** Print the event together with the seconds elapsed since the start of the search. */
 	@SuppressWarnings("boxing")
-	private void doOutput(EventType type, long step, Node<?> node) {
+	protected void doOutput(EventType type, long step, Node<?> node) {
 		final int cost = node.pastCost() + node.futureCost();
-		System.out.format("%-10s %12d %-27s %2d\n", type, step, node, cost);
+		System.out.format("%-10s %12d %8.3f %-27s %2d\n", type, step, 1e-9 * metrics.elapsedNanos(), node, cost);
 	}
 
 	private static final long PERIOD = 1000_000;
 
 	private long nextStep;
+	private final SearchMetrics metrics = new SearchMetrics();
+	private final List<MetricsSink> sinks = Lists.newArrayList();
 }
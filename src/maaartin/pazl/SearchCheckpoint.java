@@ -0,0 +1,130 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A snapshot of the state of a {@link Solver} for boards supporting {@link Board#toLong()}, i.e., the closed set
+ * with the past costs and the open list, which lets a long-running search survive a restart.
+ *
+ * <p>The file consists of a header followed by the closed set entries, each consisting of the board code
+ * and the past cost, and the open list entries, each consisting of the board code, the past cost and the total cost,
+ * taking 9 and 10 bytes, respectively. The open list entries get written in the order of polling
+ * and read in the reverse order, so that the restored queue breaks ties like the original one.
+ *
+ * <p>A snapshot owns copies of the collections, so it can be written while the search continues. The file gets
+ * written sequentially into a temporary file, which then atomically replaces the previous checkpoint,
+ * so that a crash while writing leaves the previous checkpoint intact.
+ */
+@RequiredArgsConstructor(access=AccessLevel.PRIVATE) final class SearchCheckpoint {
+	/** Create a snapshot of the given collections, which get copied. */
+	static SearchCheckpoint snapshot(long startCode, long endCode, long steps, LongCostMap closed,
+			LongBucketQueue open) {
+		return new SearchCheckpoint(startCode, endCode, steps, closed.copy(), open.copy());
+	}
+
+	/** Write the snapshot to {@code path}, replacing any existing file. This consumes the copy of the open list. */
+	void write(Path path) throws IOException {
+		final Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+			buffer.putLong(MAGIC).putInt(VERSION).putInt(0);
+			buffer.putLong(startCode).putLong(endCode).putLong(steps).putLong(closed.size()).putLong(open.size());
+			for (int slot=0; slot<closed.capacity(); ++slot) {
+				final long key = closed.keyAt(slot);
+				if (key == 0) continue;
+				if (buffer.remaining() < CLOSED_ENTRY_BYTES) flush(channel, buffer);
+				buffer.putLong(key).put((byte) closed.costAt(slot));
+			}
+			while (!open.isEmpty()) {
+				final long code = open.poll();
+				if (buffer.remaining() < OPEN_ENTRY_BYTES) flush(channel, buffer);
+				buffer.putLong(code).put((byte) open.lastPastCost()).put((byte) open.lastTotalCost());
+			}
+			flush(channel, buffer);
+			channel.force(false);
+		}
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/** Read the snapshot by memory-mapping the file. */
+	@SuppressWarnings("boxing") static SearchCheckpoint read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			checkArgument(channel.size() >= HEADER_BYTES, "Truncated checkpoint: %s", path);
+			final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+			checkArgument(header.getLong() == MAGIC, "Not a checkpoint: %s", path);
+			final int version = header.getInt();
+			checkArgument(version == VERSION, "Unsupported version %s: %s", version, path);
+			header.getInt();
+			final long startCode = header.getLong();
+			final long endCode = header.getLong();
+			final long steps = header.getLong();
+			final long closedSize = header.getLong();
+			final long openSize = header.getLong();
+			final long openStart = HEADER_BYTES + closedSize * CLOSED_ENTRY_BYTES;
+			checkArgument(channel.size() == openStart + openSize * OPEN_ENTRY_BYTES,
+					"Truncated checkpoint: %s", path);
+			final LongCostMap closed = new LongCostMap((int) closedSize);
+			for (long done=0; done<closedSize; ) {
+				final int count = (int) Math.min(closedSize - done, MAX_MAPPED_BYTES / CLOSED_ENTRY_BYTES);
+				final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+						HEADER_BYTES + done * CLOSED_ENTRY_BYTES, (long) count * CLOSED_ENTRY_BYTES);
+				for (int i=0; i<count; ++i) closed.put(buffer.getLong(), buffer.get() & 0xFF);
+				done += count;
+			}
+			final LongBucketQueue open = new LongBucketQueue();
+			// Read the open list backwards, so that the stacks get refilled in their original order.
+			for (long remaining=openSize; remaining>0; ) {
+				final int count = (int) Math.min(remaining, MAX_MAPPED_BYTES / OPEN_ENTRY_BYTES);
+				remaining -= count;
+				final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+						openStart + remaining * OPEN_ENTRY_BYTES, (long) count * OPEN_ENTRY_BYTES);
+				for (int i=count; i-->0; ) {
+					final int position = i * OPEN_ENTRY_BYTES;
+					open.add(buffer.getLong(position), buffer.get(position+8) & 0xFF, buffer.get(position+9) & 0xFF);
+				}
+			}
+			return new SearchCheckpoint(startCode, endCode, steps, closed, open);
+		}
+	}
+
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) channel.write(buffer);
+		buffer.clear();
+	}
+
+	/** The ASCII string "PAZLCKPT". */
+	private static final long MAGIC = 0x50415A4C_434B5054L;
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 56;
+	private static final int CLOSED_ENTRY_BYTES = 9;
+	private static final int OPEN_ENTRY_BYTES = 10;
+	private static final int BUFFER_BYTES = 1 << 20;
+	/** The maximum size of a single mapping, which is limited by the int positions of the buffer. */
+	private static final int MAX_MAPPED_BYTES = 1 << 30;
+
+	/** The {@link Board#toLong()} of the start board. */
+	@Getter private final long startCode;
+	/** The {@link Board#toLong()} of the end board. */
+	@Getter private final long endCode;
+	/** The number of nodes polled before the snapshot. */
+	@Getter private final long steps;
+	/** The boards and their lowest known past costs. */
+	@Getter private final LongCostMap closed;
+	/** The boards and their past and total costs. */
+	@Getter private final LongBucketQueue open;
+}
@@ -0,0 +1,79 @@
+package maaartin.pazl;
+
+import java.util.Arrays;
+
+/**
+ * Counters and histograms describing a running search, updated by the solver on every expansion.
+ *
+ * <p>The updates just increment primitive fields, so they allocate nothing and cost next to nothing.
+ * Everything else happens in {@link #snapshot(EventType, long, int)}, which gets called rarely.
+ * An instance must be used by a single thread only.
+ */
+final class SearchMetrics {
+	/** Reset everything and remember the heuristic value of the start board. */
+	void start(int startFutureCost) {
+		startNanos = System.nanoTime();
+		this.startFutureCost = startFutureCost;
+		solutionLength = -1;
+		expansions = 0;
+		generated = 0;
+		staleSkips = 0;
+		openSize = 0;
+		closedSize = 0;
+		Arrays.fill(totalCostHistogram, 0);
+	}
+
+	/** Record the expansion of a node with the given costs. */
+	void expanded(int pastCost, int futureCost) {
+		++expansions;
+		++totalCostHistogram[Math.min(pastCost + futureCost, HISTOGRAM_LENGTH - 1)];
+	}
+
+	/** Record a polled node, which has been reopened with a lower past cost in the meantime. */
+	void skippedStale() {
+		++staleSkips;
+	}
+
+	/** Record the number of children added to the open list. */
+	void generated(int count) {
+		generated += count;
+	}
+
+	void sizes(int openSize, int closedSize) {
+		this.openSize = openSize;
+		this.closedSize = closedSize;
+	}
+
+	/** Record the length of the solution found, which determines the error of the heuristic at the start board. */
+	void solved(int solutionLength) {
+		this.solutionLength = solutionLength;
+	}
+
+	long elapsedNanos() {
+		return System.nanoTime() - startNanos;
+	}
+
+	/** Return an immutable copy of the current state. Use {@code -1} for the cost if there's no event node. */
+	MetricsSnapshot snapshot(EventType type, long step, int cost) {
+		final Runtime runtime = Runtime.getRuntime();
+		return new MetricsSnapshot(type, System.currentTimeMillis(), elapsedNanos(), step, cost,
+				expansions, generated, staleSkips, openSize, closedSize,
+				solutionLength<0 ? -1 : solutionLength - startFutureCost,
+				runtime.totalMemory() - runtime.freeMemory(), totalCostHistogram.clone());
+	}
+
+	/** All total costs from this value up share the last histogram bucket. */
+	static final int HISTOGRAM_LENGTH = 256;
+
+	private long startNanos = System.nanoTime();
+	private int startFutureCost;
+	private int solutionLength = -1;
+
+	private long expansions;
+	private long generated;
+	private long staleSkips;
+	private int openSize;
+	private int closedSize;
+	/** The number of expanded nodes per total cost (f-layer). */
+	private final long[] totalCostHistogram = new long[HISTOGRAM_LENGTH];
+}
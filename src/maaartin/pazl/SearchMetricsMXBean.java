@@ -0,0 +1,24 @@
+package maaartin.pazl;
+
+/** The JMX view of the latest {@link MetricsSnapshot}, see {@link JmxMetricsSink}. */
+public interface SearchMetricsMXBean {
+	String getLastEvent();
+
+	long getStep();
+
+	long getExpansions();
+
+	long getGenerated();
+
+	int getOpenSize();
+
+	int getClosedSize();
+
+	double getExpansionsPerSecond();
+
+	int getHeuristicError();
+
+	long getHeapUsed();
+
+	long[] getTotalCostHistogram();
+}
@@ -0,0 +1,62 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+
+import junit.framework.TestCase;
+
+public class SearchMetricsTest extends TestCase {
+	private static class CollectingSink implements MetricsSink {
+		@Override public void accept(MetricsSnapshot snapshot) {
+			snapshots.add(snapshot);
+		}
+
+		final List<MetricsSnapshot> snapshots = Lists.newArrayList();
+	}
+
+	public void testSolverEvents() {
+		final FifteenBoard start = randomWalk(new Random(0), 60);
+		final CollectingSink sink = new CollectingSink();
+		final Reporter reporter = Reporter.quiet().addSink(sink);
+		final Solver<FifteenBoard> solver = Solver.create(start, GOAL, reporter);
+		final int length = solver.solve();
+		final MetricsSnapshot done = sink.snapshots.get(sink.snapshots.size() - 1);
+		assertEquals(EventType.DONE, done.type());
+		assertEquals(length, done.cost());
+		assertEquals(length - start.distanceTo(GOAL), done.heuristicError());
+		assertEquals(solver.steps(), done.step());
+		assertEquals(solver.steps() + 1, done.expansions() + done.staleSkips());
+		long histogramSum = 0;
+		for (final long count : done.totalCostHistogram()) histogramSum += count;
+		assertEquals(done.expansions(), histogramSum);
+
+		int lastLowerBound = -1;
+		long lastTimestamp = 0;
+		for (final MetricsSnapshot s : sink.snapshots) {
+			assertTrue(s.timestampMillis() >= lastTimestamp);
+			lastTimestamp = s.timestampMillis();
+			if (s.type() != EventType.LOWER_BOUND) continue;
+			assertTrue(s.cost() > lastLowerBound);
+			assertTrue(s.cost() <= length);
+			lastLowerBound = s.cost();
+		}
+		assertEquals(length, lastLowerBound);
+	}
+
+	public void testCsv() {
+		final StringWriter output = new StringWriter();
+		final Reporter reporter = Reporter.quiet().addSink(new CsvMetricsSink(output));
+		Solver.create(randomWalk(new Random(1), 30), GOAL, reporter).solve();
+		final List<String> lines = Splitter.on('\n').omitEmptyStrings().splitToList(output.toString());
+		final int columns = Splitter.on(',').splitToList(lines.get(0)).size();
+		for (final String line : lines) assertEquals(columns, Splitter.on(',').splitToList(line).size());
+		assertTrue(lines.get(lines.size() - 1).contains(",DONE,"));
+	}
+}
@@ -1,54 +1,278 @@
 package maaartin.pazl;
 
-import java.util.Map;
-import java.util.PriorityQueue;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-import com.google.common.collect.Maps;
-import com.google.common.collect.Queues;
+import com.google.common.collect.Lists;
 
 @RequiredArgsConstructor(access=AccessLevel.PRIVATE) class Solver<B extends Board<B>> {
+	/** Create a solver using {@link Board#distanceHeuristic()} of {@code endBoard}. */
 	public static <B extends Board<B>> Solver<B> create(B startBoard, B endBoard, Reporter reporter) {
-		return new Solver<B>(startBoard, endBoard, endBoard.alternative(), reporter);
+		return create(startBoard, endBoard, endBoard.distanceHeuristic(), reporter);
+	}
+
+	/** Create a solver using the given heuristic, which must be admissible for {@code endBoard}. */
+	public static <B extends Board<B>> Solver<B> create(B startBoard, B endBoard, Heuristic<B> heuristic,
+			Reporter reporter) {
+		return create(startBoard, endBoard, heuristic, reporter, newClosedSet(startBoard), newOpenList(startBoard));
+	}
+
+	/**
+	 * Create a solver reusing the given collections, which get cleared first.
+	 * This saves their reallocation and regrowing when solving many boards in a row.
+	 */
+	public static <B extends Board<B>> Solver<B> create(B startBoard, B endBoard, Heuristic<B> heuristic,
+			Reporter reporter, ClosedSet<B> closedSet, OpenList<B> openList) {
+		closedSet.clear();
+		openList.clear();
+		return new Solver<B>(startBoard, endBoard, endBoard.alternative(), heuristic, reporter, closedSet, openList);
+	}
+
+	/**
+	 * Create a solver continuing the search saved by {@link #solve(Path, long, TimeUnit)}.
+	 * The heuristic must be the same as in the saved search.
+	 */
+	public static <B extends Board<B>> Solver<B> resume(Path checkpoint, B endBoard, Heuristic<B> heuristic,
+			Reporter reporter) throws IOException {
+		checkArgument(endBoard.hasLongEncoding());
+		final SearchCheckpoint snapshot = SearchCheckpoint.read(checkpoint);
+		checkArgument(snapshot.endCode() == endBoard.toLong(), "Checkpoint for another end board: %s", checkpoint);
+		final B startBoard = endBoard.fromLong(snapshot.startCode());
+		final Solver<B> result = new Solver<B>(startBoard, endBoard, endBoard.alternative(), heuristic, reporter,
+				new LongClosedSet<B>(snapshot.closed()), new BucketOpenList<B>(startBoard, snapshot.open()));
+		result.steps = snapshot.steps();
+		result.resumed = true;
+		return result;
+	}
+
+	static <B extends Board<B>> ClosedSet<B> newClosedSet(B startBoard) {
+		return startBoard.hasLongEncoding() ? new LongClosedSet<B>() : new HashClosedSet<B>();
 	}
 
-	void solve() {
+	static <B extends Board<B>> OpenList<B> newOpenList(B startBoard) {
+		return startBoard.hasLongEncoding() ? new BucketOpenList<B>(startBoard) : new HeapOpenList<B>();
+	}
+
+	/** Return the length of an optimal solution or -1 if there's none. */
+	int solve() {
+		try {
+			return search(null);
+		} catch (final IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * Return the length of an optimal solution or -1 if there's none, like {@link #solve()},
+	 * and save the search state to {@code checkpoint} every {@code interval}, so that it can be {@link #resume}d.
+	 * This needs the default collections for boards supporting {@link Board#toLong()}.
+	 *
+	 * <p>The search pauses just for copying the collections into a {@link SearchCheckpoint}, which temporarily
+	 * doubles the memory needed. The copy gets written in the background. All snapshots get taken between two
+	 * expansions, so the resumed search finds an optimal solution just like the original one would.
+	 */
+	int solve(Path checkpoint, long interval, TimeUnit unit) throws IOException {
+		checkArgument(closedSet instanceof LongClosedSet && queue instanceof BucketOpenList,
+				"Unsupported collections");
+		final CheckpointWriter writer = new CheckpointWriter(checkpoint, unit.toNanos(interval));
+		try {
+			final int result = search(writer);
+			writer.await();
+			return result;
+		} finally {
+			writer.executor.shutdownNow();
+		}
+	}
+
+	private int search(CheckpointWriter writer) throws IOException {
 		double minFutureCost = Double.MAX_VALUE;
-		queue.add(new Node<B>(startBoard, 0, startBoard.distanceTo(endBoard)));
-		for (long step=0; ; ++step) {
+		int lowerBound = -1;
+		final SearchMetrics metrics = reporter.metrics();
+		final int startFutureCost = heuristic.distance(startBoard);
+		metrics.start(startFutureCost);
+		solution = null;
+		if (!resumed) {
+			steps = 0;
+			queue.add(new Node<B>(startBoard, 0, startFutureCost));
+			closedSet.offer(startBoard, 0);
+		}
+		for (; ; ++steps) {
+			if (writer != null && (steps & CHECKPOINT_CHECK_MASK) == 0) writer.writeIfDue();
 			final Node<B> node = queue.poll();
-			if (node==null) return;
+			if (node==null) return -1;
+			// Skip the node when it has been reopened with a lower past cost.
+			if (node.pastCost() > closedSet.pastCost(node.board())) {
+				metrics.skippedStale();
+				continue;
+			}
+			metrics.expanded(node.pastCost(), node.futureCost());
+			metrics.sizes(queue.size(), closedSet.size());
+			// With a consistent heuristic, the lowest total cost in the open list never decreases.
+			final int totalCost = node.pastCost() + node.futureCost();
+			if (totalCost > lowerBound) {
+				lowerBound = totalCost;
+				reporter.report(EventType.LOWER_BOUND, steps, node);
+			}
 			final boolean isSolution = node.board().equals(endBoard) || node.board().equals(alternativeEndBoard);
 			if (isSolution) {
-				reporter.report(EventType.DONE, step, node);
+				solution = node.board();
+				metrics.solved(node.pastCost());
+				reporter.report(EventType.DONE, steps, node);
 			} else if (node.futureCost() < minFutureCost) {
 				minFutureCost = node.futureCost();
-				reporter.report(EventType.CLOSER, step, node);
+				reporter.report(EventType.CLOSER, steps, node);
 			} else {
-				reporter.report(EventType.NOTHING, step, node);
+				reporter.report(EventType.NOTHING, steps, node);
+			}
+			if (isSolution) return node.pastCost();
+			metrics.generated(expand(node));
+		}
+	}
+
+	/** Add the children of the node to the open list unless already known and return their number. */
+	private int expand(Node<B> node) {
+		final B board = node.board();
+		final int childPastCost = node.pastCost() + 1;
+		int result = 0;
+		if (closedSet instanceof LongClosedSet) {
+			// Avoid creating the children already contained in the closed set.
+			final LongClosedSet<B> longClosedSet = (LongClosedSet<B>) closedSet;
+			final int childCount = board.childCodes(childCodes);
+			for (int i=0; i<childCount; ++i) {
+				if (!longClosedSet.offer(childCodes[i], childPastCost)) continue;
+				add(board, node.futureCost(), board.child(childCodes[i]), childPastCost);
+				++result;
+			}
+		} else {
+			for (final B child : board.children()) {
+				if (!closedSet.offer(child, childPastCost)) continue;
+				add(board, node.futureCost(), child, childPastCost);
+				++result;
 			}
-			if (isSolution) return;
-			for (final B b : node.board().children()) {
-				final Node<B> oldNode = map.get(b);
-				if (oldNode==null) {
-					final int childPastCost = node.pastCost() + 1;
-					final int childFutureCost = b.distanceTo(endBoard);
-					final Node<B> childNode = new Node<B>(b, childPastCost, childFutureCost);
-					queue.add(childNode);
-					map.put(b, childNode);
+		}
+		return result;
+	}
+
+	private void add(B parent, int parentFutureCost, B child, int childPastCost) {
+		queue.add(new Node<B>(child, childPastCost, heuristic.childDistance(parent, parentFutureCost, child)));
+	}
+
+	/**
+	 * Return the boards of the optimal solution found by the last call to {@link #solve()},
+	 * starting with {@code startBoard} and ending with the reached end board.
+	 * This works only as long as the closed set doesn't get reused.
+	 *
+	 * <p>No parents get stored, so this costs no memory during the search. Instead, the predecessor of every board
+	 * on the path is any of its neighbors having a lower past cost in the closed set. It exists as the board was
+	 * generated from such a neighbor, and as moves are reversible, the neighbors are just the children.
+	 * As the past costs strictly decrease, this reaches the start after at most the solution length steps.
+	 */
+	List<B> path() {
+		checkState(solution != null, "No solution found");
+		return path(solution, closedSet);
+	}
+
+	/** Return the path from the board with past cost 0 to {@code end}, see {@link #path()}. */
+	static <B extends Board<B>> List<B> path(B end, ClosedSet<B> closedSet) {
+		final List<B> result = Lists.newArrayList(end);
+		B board = end;
+		int pastCost = closedSet.pastCost(board);
+		while (pastCost > 0) {
+			B predecessor = null;
+			for (final B b : board.children()) {
+				final int c = closedSet.pastCost(b);
+				if (c != -1 && c < pastCost) {
+					predecessor = b;
+					pastCost = c;
 				}
 			}
+			checkState(predecessor != null, "No predecessor of %s", board);
+			result.add(predecessor);
+			board = predecessor;
 		}
+		return Lists.reverse(result);
 	}
 
+	/** Writes the snapshots in a background thread, waiting for the previous write before starting the next one. */
+	private final class CheckpointWriter {
+		CheckpointWriter(Path checkpoint, long intervalNanos) {
+			this.checkpoint = checkpoint;
+			this.intervalNanos = intervalNanos;
+			nextWrite = System.nanoTime() + intervalNanos;
+		}
+
+		void writeIfDue() throws IOException {
+			if (System.nanoTime() - nextWrite < 0) return;
+			await();
+			final SearchCheckpoint snapshot = SearchCheckpoint.snapshot(startBoard.toLong(), endBoard.toLong(),
+					steps, ((LongClosedSet<B>) closedSet).map(), ((BucketOpenList<B>) queue).queue());
+			lastWrite = executor.submit(new Callable<Void>() {
+				@Override public Void call() throws IOException {
+					snapshot.write(checkpoint);
+					return null;
+				}
+			});
+			nextWrite = System.nanoTime() + intervalNanos;
+		}
+
+		/** Wait for the last write to finish and rethrow its exception, if any. */
+		void await() throws IOException {
+			if (lastWrite == null) return;
+			try {
+				lastWrite.get();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			} catch (final ExecutionException e) {
+				if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+				throw new RuntimeException(e.getCause());
+			}
+			lastWrite = null;
+		}
+
+		private final Path checkpoint;
+		private final long intervalNanos;
+		private final ExecutorService executor = Executors.newSingleThreadExecutor();
+		private long nextWrite;
+		private Future<Void> lastWrite;
+	}
+
+	/** Check the checkpoint interval every 1024 steps. */
+	private static final long CHECKPOINT_CHECK_MASK = 1023;
+
 	private final B startBoard;
 	private final B endBoard;
 	private final B alternativeEndBoard;
+	private final Heuristic<B> heuristic;
 
 	private final Reporter reporter;
 
-	private final PriorityQueue<Node<B>> queue = Queues.newPriorityQueue();
-	private final Map<B, Node<B>> map = Maps.newHashMap();
+	private final ClosedSet<B> closedSet;
+	private final OpenList<B> queue;
+
+	/** The buffer for {@link Board#childCodes(long[])}. */
+	private final long[] childCodes = new long[Board.MAX_CHILDREN];
+
+	/** The end board reached by the last call to {@link #solve()} or null. */
+	private B solution;
+
+	/** The number of polled nodes, including the ones polled before the checkpoint the search was resumed from. */
+	@Getter private long steps;
+	/** True if the collections contain a search state restored from a checkpoint. */
+	private boolean resumed;
 }
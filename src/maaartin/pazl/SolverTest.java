@@ -0,0 +1,81 @@
+package maaartin.pazl;
+
+import static maaartin.pazl.Boards.GOAL;
+import static maaartin.pazl.Boards.randomWalk;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+public class SolverTest extends TestCase {
+	public void testPath() {
+		final Random random = new Random(42);
+		for (int i=0; i<20; ++i) {
+			FifteenBoard start = randomWalk(random, 10 + 3*i);
+			if (i%4 == 0) start = start.alternative();
+			final Solver<FifteenBoard> solver = Solver.create(start, GOAL, Reporter.quiet());
+			final int length = solver.solve();
+			final List<FifteenBoard> path = solver.path();
+			assertEquals(length + 1, path.size());
+			assertEquals(start, path.get(0));
+			final FifteenBoard end = path.get(length);
+			assertTrue(end.equals(GOAL) || end.equals(GOAL.alternative()));
+			for (int j=1; j<path.size(); ++j) {
+				assertTrue(path.get(j-1).children().contains(path.get(j)));
+				final int piece = path.get(j-1).movedPiece(path.get(j));
+				assertTrue(0 < piece && piece < 16);
+			}
+		}
+	}
+
+	public void testCheckpoint() throws IOException {
+		final Path directory = Files.createTempDirectory("checkpoint-");
+		final Path checkpoint = directory.resolve("search.bin");
+		try {
+			final Heuristic<FifteenBoard> heuristic = GOAL.distanceHeuristic();
+			final Random random = new Random(43);
+			int resumedInTheMiddle = 0;
+			for (int i=0; i<5; ++i) {
+				final FifteenBoard start = randomWalk(random, 60 + 10*i);
+				final Solver<FifteenBoard> solver = Solver.create(start, GOAL, Reporter.quiet());
+				final int length = solver.solve();
+				Files.deleteIfExists(checkpoint);
+				// Save the state as often as possible, so that the last checkpoint is taken shortly before the end.
+				assertEquals(length,
+						Solver.create(start, GOAL, Reporter.quiet()).solve(checkpoint, 0, TimeUnit.NANOSECONDS));
+				final Solver<FifteenBoard> resumed = Solver.resume(checkpoint, GOAL, heuristic, Reporter.quiet());
+				if (resumed.steps() > 0) ++resumedInTheMiddle;
+				assertEquals(length, resumed.solve());
+				// The restored open list breaks ties in the same order, so the search ends at the same node.
+				assertEquals(solver.steps(), resumed.steps());
+				assertEquals(solver.path(), resumed.path());
+			}
+			assertTrue(resumedInTheMiddle > 0);
+			try {
+				Solver.resume(checkpoint, GOAL.alternative(), heuristic, Reporter.quiet());
+				fail();
+			} catch (final IllegalArgumentException e) {
+				// Expected.
+			}
+		} finally {
+			Files.deleteIfExists(checkpoint);
+			Files.delete(directory);
+		}
+	}
+
+	public void testMovedPiece() {
+		final FifteenBoard board = FifteenBoard.from("1 2 3 4 5 6 7 8 9 10 11 12 13 14 0 15");
+		assertEquals(15, board.movedPiece(GOAL));
+		try {
+			board.movedPiece(board.alternative());
+			fail();
+		} catch (final IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+}
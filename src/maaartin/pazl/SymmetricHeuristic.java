@@ -0,0 +1,116 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * The maximum of a {@link PatternDatabaseHeuristic} evaluated for the board, its reflection and its dual,
+ * which gives a stronger bound using the same tables. All three lookups need just the positions of the pieces.
+ *
+ * <p>The reflection is about the diagonal through the empty field of the goal, with the pieces renamed so that the
+ * goal gets reflected to itself. It keeps all distances, so the reflected value is admissible and consistent. It
+ * helps as the partitions of the pieces aren't symmetric.
+ *
+ * <p>The dual board is the inverse permutation, with every piece denoted by its goal index: The dual contains
+ * the piece belonging to index {@code i} at the goal index of the piece at index {@code i}. When the empty field is
+ * at its goal index, the moves solving the board solve the dual, too, when applied in the reverse order,
+ * so both have the same distance. Otherwise, the empty field gets moved to its goal index first and the number of
+ * these moves gets subtracted from the heuristic value of the dual. The dual value is admissible, but not
+ * consistent, so when using it, this heuristic must not be used with {@link FrontierSolver}.
+ *
+ * <p>The children get evaluated from scratch, as the parent's value doesn't tell which lookup gave the maximum.
+ */
+final class SymmetricHeuristic extends FifteenHeuristic {
+	/** Create a heuristic using the reflection and, if {@code useDual}, the dual board, too. */
+	SymmetricHeuristic(PatternDatabaseHeuristic base, boolean useDual) {
+		super(base.goal());
+		this.base = base;
+		this.useDual = useDual;
+		final FifteenBoard goal = base.goal();
+		goalPieceToIndex = goal.pieceToIndex;
+		emptyGoalIndex = goal.pieceToIndex(0);
+		final int emptyCol = FifteenBoard.indexToCol(emptyGoalIndex);
+		final int emptyRow = FifteenBoard.indexToRow(emptyGoalIndex);
+		// Use the main diagonal if it contains the empty field, otherwise the other one.
+		final boolean isMain = emptyCol == emptyRow;
+		checkArgument(isMain || emptyCol + emptyRow == 3,
+				"The empty field of the goal must lie on a diagonal: %s", goal);
+		reflectedIndexes = new int[16];
+		towardsGoal = new int[16];
+		for (int index=0; index<16; ++index) {
+			final int col = FifteenBoard.indexToCol(index);
+			final int row = FifteenBoard.indexToRow(index);
+			reflectedIndexes[index] = isMain ? FifteenBoard.toIndex(row, col) : FifteenBoard.toIndex(3-row, 3-col);
+			if (col != emptyCol) {
+				towardsGoal[index] = FifteenBoard.toIndex(col < emptyCol ? col+1 : col-1, row);
+			} else if (row != emptyRow) {
+				towardsGoal[index] = FifteenBoard.toIndex(col, row < emptyRow ? row+1 : row-1);
+			}
+		}
+		reflectedPieces = new int[16];
+		for (int piece=0; piece<16; ++piece) {
+			reflectedPieces[piece] = goal.indexToPiece(reflectedIndexes[goal.pieceToIndex(piece)]);
+		}
+	}
+
+	@Override int distance(long indexToPiece, long pieceToIndex) {
+		long reflectedPieceToIndex = 0;
+		for (int i=0; i<16; ++i) {
+			reflectedPieceToIndex |= (long) reflectedIndexes[get(pieceToIndex, reflectedPieces[i])] << 4*i;
+		}
+		final int result = Math.max(base.distance(pieceToIndex), base.distance(reflectedPieceToIndex));
+		return useDual ? Math.max(result, dualDistance(indexToPiece, (int) (pieceToIndex & 15))) : result;
+	}
+
+	/** Return the value of the dual, lowered by the number of moves needed for moving the empty field home. */
+	private int dualDistance(long indexToPiece, int emptyIndex) {
+		int emptyMoves = 0;
+		while (emptyIndex != emptyGoalIndex) {
+			final int index = towardsGoal[emptyIndex];
+			final long piece = get(indexToPiece, index);
+			indexToPiece ^= (piece << 4*index) ^ (piece << 4*emptyIndex);
+			emptyIndex = index;
+			++emptyMoves;
+		}
+		long dualPieceToIndex = 0;
+		// With the pieces denoted by their goal indexes, the dual pieceToIndex is the indexToPiece.
+		for (int i=0; i<16; ++i) {
+			dualPieceToIndex |= (long) get(goalPieceToIndex, get(indexToPiece, get(goalPieceToIndex, i))) << 4*i;
+		}
+		return base.distance(dualPieceToIndex) - emptyMoves;
+	}
+
+	/** Return the reflection of the board, which has the same distance to the goal. */
+	@VisibleForTesting FifteenBoard reflect(FifteenBoard board) {
+		long result = 0;
+		for (int i=0; i<16; ++i) result |= (long) reflectedPieces[board.indexToPiece(reflectedIndexes[i])] << 4*i;
+		return FifteenBoard.from(result);
+	}
+
+	/**
+	 * Return the dual of the board, which has the same distance to the goal if the empty field is at its goal index.
+	 */
+	@VisibleForTesting FifteenBoard dual(FifteenBoard board) {
+		long result = 0;
+		for (int i=0; i<16; ++i) {
+			result |= (long) goal().indexToPiece(board.pieceToIndex(goal().indexToPiece(i))) << 4*i;
+		}
+		return FifteenBoard.from(result);
+	}
+
+	private static int get(long data, int index) {
+		return (int) (data >>> 4*index) & 15;
+	}
+
+	private final PatternDatabaseHeuristic base;
+	private final boolean useDual;
+	private final long goalPieceToIndex;
+	private final int emptyGoalIndex;
+	/** The index obtained by reflecting the given index. */
+	private final int[] reflectedIndexes;
+	/** The name of the given piece after the reflection, so that the reflected goal equals the goal. */
+	private final int[] reflectedPieces;
+	/** The neighbor of the given index on the way of the empty field to its goal index. */
+	private final int[] towardsGoal;
+}
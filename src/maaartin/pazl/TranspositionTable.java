@@ -0,0 +1,152 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size lossy table of lower bounds on the remaining distance, letting a depth-first search skip subtrees
+ * already proven too deep when reached again via a transposition. The keys are the {@link Board#toLong()} codes.
+ *
+ * <p>Every bound gets stored together with a context, which must match on lookup. A depth-first search usually
+ * doesn't undo the last move, so the bound it proves holds only for paths not starting by the move back,
+ * and the context should identify the forbidden moves, e.g., by the last move or the state of a
+ * {@link MoveAutomaton}.
+ *
+ * <p>The table consists of buckets of two slots. The first slot is depth-preferred: It gets replaced by an entry
+ * having at least the same depth or when it was stored in an earlier search iteration, see {@link #nextAge()}.
+ * Otherwise the second slot gets replaced unconditionally.
+ *
+ * <p>The table is lock-free and may be shared by multiple threads. Every slot consists of two longs written without
+ * any synchronization, the data and the xor of the data with the key. A torn or mixed slot fails the key
+ * verification and is treated as empty, so racing threads may lose entries, but never get a wrong bound. For the
+ * same reason, the statistics are only approximate when the table is shared.
+ */
+final class TranspositionTable {
+	private TranspositionTable(int buckets) {
+		table = new long[buckets * LONGS_PER_BUCKET];
+		shift = Long.SIZE - Integer.numberOfTrailingZeros(buckets);
+	}
+
+	/** Create a table taking at most the given number of megabytes. */
+	static TranspositionTable create(int megabytes) {
+		checkArgument(megabytes > 0);
+		final long bytes = (long) megabytes << 20;
+		final long buckets = Math.min(MAX_BUCKETS, Long.highestOneBit(bytes / (8 * LONGS_PER_BUCKET)));
+		return new TranspositionTable((int) buckets);
+	}
+
+	/** Return the stored lower bound for the key and the context or {@link #ABSENT}. */
+	int get(long key, int context) {
+		++probes;
+		final int bucket = bucket(key);
+		for (int i=bucket; i<bucket+LONGS_PER_BUCKET; i+=2) {
+			final long data = table[i+1];
+			if ((table[i] ^ data) == key && context(data) == context) {
+				++hits;
+				return (int) (data & 0xFF);
+			}
+		}
+		return ABSENT;
+	}
+
+	/**
+	 * Store a lower bound for the key and the context.
+	 *
+	 * @param context a value between 0 and {@value #MAX_CONTEXT} describing under which condition the bound holds
+	 * @param lowerBound a lower bound on the remaining distance; larger values get stored as {@value #MAX_BOUND}
+	 * @param depth a measure of the effort spent on proving the bound, values above 255 get stored as 255
+	 */
+	void put(long key, int context, int lowerBound, int depth) {
+		assert 0 <= context && context <= MAX_CONTEXT;
+		++stores;
+		final long data = Math.min(lowerBound, MAX_BOUND)
+				| (long) Math.min(depth, 0xFF) << 8
+				| (long) age << 16
+				| (long) context << 24;
+		final int bucket = bucket(key);
+		final long oldData = table[bucket+1];
+		final boolean sameEntry = (table[bucket] ^ oldData) == key && context(oldData) == context;
+		final boolean replaceFirst = sameEntry || age(oldData) != age || depth(oldData) <= depth(data);
+		final int slot = replaceFirst ? bucket : bucket + 2;
+		table[slot] = key ^ data;
+		table[slot+1] = data;
+	}
+
+	/** Start a new search iteration, making all entries stored so far preferred for replacement. */
+	void nextAge() {
+		age = (age + 1) & 0xFF;
+	}
+
+	/** Remove all entries and reset the statistics. */
+	void clear() {
+		Arrays.fill(table, 0);
+		probes = 0;
+		hits = 0;
+		stores = 0;
+	}
+
+	/** Return the number of entries the table can hold. */
+	int capacity() {
+		return table.length / 2;
+	}
+
+	/** Return the number of calls to {@link #get(long, int)}. */
+	long probes() {
+		return probes;
+	}
+
+	/** Return the number of successful calls to {@link #get(long, int)}. */
+	long hits() {
+		return hits;
+	}
+
+	/** Return the number of calls to {@link #put(long, int, int, int)}. */
+	long stores() {
+		return stores;
+	}
+
+	/** Return the fraction of successful lookups. */
+	double hitRate() {
+		return probes==0 ? 0 : (double) hits / probes;
+	}
+
+	@SuppressWarnings("boxing") @Override public String toString() {
+		return String.format("%d probes, %d hits (%.2f%%), %d stores, %d entries",
+				probes, hits, 100 * hitRate(), stores, capacity());
+	}
+
+	private int bucket(long key) {
+		return (int) ((key * MULTIPLIER) >>> shift) * LONGS_PER_BUCKET;
+	}
+
+	private static int depth(long data) {
+		return (int) (data >>> 8) & 0xFF;
+	}
+
+	private static int age(long data) {
+		return (int) (data >>> 16) & 0xFF;
+	}
+
+	private static int context(long data) {
+		return (int) (data >>> 24) & MAX_CONTEXT;
+	}
+
+	/** The value returned by {@link #get(long, int)} for unknown entries. */
+	static final int ABSENT = -1;
+	static final int MAX_CONTEXT = 0xFFFF;
+	static final int MAX_BOUND = 0xFF;
+	/** An odd constant mixing the key, so that the highest bits of the product can be used as the bucket number. */
+	static final long MULTIPLIER = 0x9E37_79B9_7F4A_7C15L;
+
+	private static final int LONGS_PER_BUCKET = 4;
+	private static final long MAX_BUCKETS = 1 << 28;
+
+	private final long[] table;
+	private final int shift;
+	private int age;
+
+	private long probes;
+	private long hits;
+	private long stores;
+}
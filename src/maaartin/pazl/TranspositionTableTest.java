@@ -0,0 +1,84 @@
+package maaartin.pazl;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
+import junit.framework.TestCase;
+
+public class TranspositionTableTest extends TestCase {
+	public void testGetAndPut() {
+		final TranspositionTable table = TranspositionTable.create(1);
+		assertEquals(1 << 16, table.capacity());
+		assertEquals(TranspositionTable.ABSENT, table.get(42, 0));
+		table.put(42, 3, 17, 5);
+		assertEquals(17, table.get(42, 3));
+		assertEquals(TranspositionTable.ABSENT, table.get(42, 2));
+		assertEquals(TranspositionTable.ABSENT, table.get(43, 3));
+		table.put(42, 3, 1000, 5);
+		assertEquals(TranspositionTable.MAX_BOUND, table.get(42, 3));
+		assertEquals(5, table.probes());
+		assertEquals(2, table.hits());
+		table.clear();
+		assertEquals(TranspositionTable.ABSENT, table.get(42, 3));
+	}
+
+	public void testReplacement() {
+		final TranspositionTable table = TranspositionTable.create(1);
+		// All these keys land in the same bucket, as their products with the multiplier are tiny.
+		final long inverse = inverse(TranspositionTable.MULTIPLIER);
+		final long deep = 1 * inverse;
+		final long shallow1 = 2 * inverse;
+		final long shallow2 = 3 * inverse;
+		table.put(deep, 0, 10, 20);
+		table.put(shallow1, 0, 11, 5);
+		table.put(shallow2, 0, 12, 5);
+		assertEquals(10, table.get(deep, 0));
+		assertEquals(TranspositionTable.ABSENT, table.get(shallow1, 0));
+		assertEquals(12, table.get(shallow2, 0));
+		// After the next iteration starts, the deep entry gets replaced.
+		table.nextAge();
+		table.put(shallow1, 0, 11, 5);
+		assertEquals(TranspositionTable.ABSENT, table.get(deep, 0));
+		assertEquals(11, table.get(shallow1, 0));
+	}
+
+	/** Return the multiplicative inverse of an odd number modulo 2**64 using Newton's iteration. */
+	private static long inverse(long x) {
+		long result = x;
+		for (int i=0; i<5; ++i) result *= 2 - x * result;
+		assertEquals(1, x * result);
+		return result;
+	}
+
+	public void testConcurrentAccess() throws InterruptedException {
+		// A tiny table shared by threads writing colliding keys, where the bound is a function of the key.
+		final TranspositionTable table = TranspositionTable.create(1);
+		final List<Thread> threads = Lists.newArrayList();
+		final List<Throwable> failures = Lists.newArrayList();
+		for (int t=0; t<4; ++t) {
+			final int seed = t;
+			threads.add(new Thread() {
+				@Override public void run() {
+					final Random random = new Random(seed);
+					for (int i=0; i<1000_000; ++i) {
+						final long key = random.nextInt(1 << 18) + 1;
+						table.put(key, (int) (key & 7), (int) (key % 251), i & 31);
+						final long key2 = random.nextInt(1 << 18) + 1;
+						final int bound = table.get(key2, (int) (key2 & 7));
+						if (bound != TranspositionTable.ABSENT && bound != key2 % 251) {
+							synchronized (failures) {
+								failures.add(new AssertionError("Wrong bound " + bound + " for " + key2));
+							}
+							return;
+						}
+					}
+				}
+			});
+		}
+		for (final Thread thread : threads) thread.start();
+		for (final Thread thread : threads) thread.join();
+		assertEquals(Lists.newArrayList(), failures);
+	}
+}
@@ -0,0 +1,148 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+
+/**
+ * The walking distance as introduced by Ken'ichiro Takahashi.
+ *
+ * <p>For the vertical part, the board gets abstracted to a table telling for every row how many of its pieces
+ * belong to which row in the goal. The vertical moves in the abstract space get counted by a breadth-first search.
+ * The horizontal part is the same with the roles of rows and columns exchanged, and the result is the sum of both.
+ *
+ * <p>Every line of the table (i.e., the content of a row in terms of the goal rows) gets identified by a small
+ * number, which gets looked up using the nibbles of {@link FifteenBoard#indexToPiece}. The four numbers together
+ * form the index into the table of precomputed distances.
+ */
+final class WalkingDistanceHeuristic extends FifteenHeuristic {
+	WalkingDistanceHeuristic(FifteenBoard goal) {
+		super(goal);
+		final int[] goalCols = new int[16];
+		final int[] goalRows = new int[16];
+		for (int piece=1; piece<16; ++piece) {
+			goalCols[piece] = FifteenBoard.indexToCol(goal.pieceToIndex(piece));
+			goalRows[piece] = FifteenBoard.indexToRow(goal.pieceToIndex(piece));
+		}
+		colLineIds = lineIds(goalCols);
+		rowLineIds = lineIds(goalRows);
+		int colGoalKey = 0;
+		int rowGoalKey = 0;
+		for (int line=0; line<4; ++line) {
+			colGoalKey = colGoalKey * LINE_ID_LIMIT + colLineIds[FifteenBoard.colNibbles(goal.indexToPiece, line)];
+			rowGoalKey = rowGoalKey * LINE_ID_LIMIT + rowLineIds[FifteenBoard.rowNibbles(goal.indexToPiece, line)];
+		}
+		colDistances = distances(colGoalKey);
+		rowDistances = distances(rowGoalKey);
+	}
+
+	/** Return the line id for every line content, given the goal line of every piece. */
+	private static byte[] lineIds(int[] goalLines) {
+		final byte[] result = new byte[1<<16];
+		for (int nibbles=0; nibbles<1<<16; ++nibbles) {
+			int counts = 0;
+			for (int i=0; i<4; ++i) {
+				final int piece = (nibbles >> 4*i) & 15;
+				if (piece != 0) counts += 1 << (COUNT_BITS * goalLines[piece]);
+			}
+			// Invalid contents (with repeated pieces) may lead to impossible counts, which get ignored.
+			final int id = countsToId(counts);
+			result[nibbles] = (byte) Math.max(id, 0);
+		}
+		return result;
+	}
+
+	/** Run a breadth-first search from the goal in the abstract space and return the distances for all keys. */
+	private static byte[] distances(int goalKey) {
+		final byte[] result = new byte[LINE_ID_LIMIT * LINE_ID_LIMIT * LINE_ID_LIMIT * LINE_ID_LIMIT];
+		Arrays.fill(result, UNKNOWN);
+		result[goalKey] = 0;
+		LongStack current = new LongStack();
+		LongStack next = new LongStack();
+		current.push(goalKey);
+		final int[] lines = new int[4];
+		for (int level=1; !current.isEmpty(); ++level) {
+			checkState(level < UNKNOWN, "Too many levels");
+			while (!current.isEmpty()) {
+				int key = (int) current.pop();
+				int emptyLine = -1;
+				for (int line=4; line-->0; key /= LINE_ID_LIMIT) {
+					lines[line] = ID_TO_COUNTS[key % LINE_ID_LIMIT];
+					if (total(lines[line]) == 3) emptyLine = line;
+				}
+				for (int otherLine=emptyLine-1; otherLine<=emptyLine+1; otherLine+=2) {
+					if (otherLine<0 || otherLine>=4) continue;
+					// Move a piece belonging to the goal line j from the other line to the line containing the empty
+					// field.
+					for (int j=0; j<4; ++j) {
+						final int one = 1 << (COUNT_BITS * j);
+						if (((lines[otherLine] >> (COUNT_BITS * j)) & COUNT_MASK) == 0) continue;
+						lines[otherLine] -= one;
+						lines[emptyLine] += one;
+						int newKey = 0;
+						for (final int counts : lines) newKey = newKey * LINE_ID_LIMIT + countsToId(counts);
+						if (result[newKey] == UNKNOWN) {
+							result[newKey] = (byte) level;
+							next.push(newKey);
+						}
+						lines[otherLine] += one;
+						lines[emptyLine] -= one;
+					}
+				}
+			}
+			final LongStack tmp = current;
+			current = next;
+			next = tmp;
+		}
+		return result;
+	}
+
+	@Override int distance(long indexToPiece, long pieceToIndex) {
+		int colKey = 0;
+		int rowKey = 0;
+		for (int line=0; line<4; ++line) {
+			colKey = colKey * LINE_ID_LIMIT + colLineIds[FifteenBoard.colNibbles(indexToPiece, line)];
+			rowKey = rowKey * LINE_ID_LIMIT + rowLineIds[FifteenBoard.rowNibbles(indexToPiece, line)];
+		}
+		return colDistances[colKey] + rowDistances[rowKey];
+	}
+
+	private static int total(int counts) {
+		int result = 0;
+		for (int j=0; j<4; ++j) result += (counts >> (COUNT_BITS * j)) & COUNT_MASK;
+		return result;
+	}
+
+	/** Return the id of a line content or -1 if impossible. */
+	private static int countsToId(int counts) {
+		return COUNTS_TO_ID[counts];
+	}
+
+	/** Every line content is represented as four counts of pieces belonging to the corresponding goal line. */
+	private static final int COUNT_BITS = 3;
+	private static final int COUNT_MASK = (1 << COUNT_BITS) - 1;
+
+	/** The ids of all possible line contents, i.e., of counts summing to 3 (with the empty field) or 4. */
+	private static final int[] COUNTS_TO_ID = new int[1 << (4 * COUNT_BITS)];
+	private static final int[] ID_TO_COUNTS;
+	static {
+		Arrays.fill(COUNTS_TO_ID, -1);
+		final int[] idToCounts = new int[COUNTS_TO_ID.length];
+		int id = 0;
+		for (int counts=0; counts<COUNTS_TO_ID.length; ++counts) {
+			final int total = total(counts);
+			if (total != 3 && total != 4) continue;
+			COUNTS_TO_ID[counts] = id;
+			idToCounts[id++] = counts;
+		}
+		ID_TO_COUNTS = Arrays.copyOf(idToCounts, id);
+	}
+	private static final int LINE_ID_LIMIT = ID_TO_COUNTS.length;
+
+	private static final byte UNKNOWN = Byte.MAX_VALUE;
+
+	private final byte[] colLineIds;
+	private final byte[] rowLineIds;
+	private final byte[] colDistances;
+	private final byte[] rowDistances;
+}
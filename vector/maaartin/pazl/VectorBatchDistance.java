@@ -0,0 +1,69 @@
+package maaartin.pazl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link BatchDistance} running the kernel of {@link FifteenBoard#manhattanDistance(long, long)}
+ * in the lanes of a {@link LongVector} of the preferred shape, with the scalar kernel handling the tail.
+ * It gets instantiated reflectively by {@link BatchDistance#create()}.
+ *
+ * <p>The sources in this folder need {@code --add-modules jdk.incubator.vector} both for compiling and running,
+ * which is why they're separated from {@code src}.
+ *
+ * <p>There's no lane-wise bit count before JDK 19, so instead of the two {@link Long#bitCount(long)} calls,
+ * the 2-bit fields holding the coordinate differences get summed by shifting and adding.
+ * This takes a few more operations, but they're all cheap and there's no horizontal reduction needed.
+ */
+final class VectorBatchDistance extends BatchDistance {
+	VectorBatchDistance() {
+		// A single lane would make no sense and there'd be no matching int shape.
+		checkArgument(LONGS.length() >= 2, "No vector support: %s", LONGS);
+	}
+
+	@Override void manhattanDistancesUnchecked(long goalPieceToIndex, long[] pieceToIndexes, int[] distances,
+			int count) {
+		// The goal-dependent part of the kernel gets computed just once.
+		final long y = goalPieceToIndex & ~15;
+		final long y2 = y | (y << 1);
+		final int bound = LONGS.loopBound(count);
+		int i = 0;
+		for (; i<bound; i+=LONGS.length()) {
+			final LongVector x = LongVector.fromArray(LONGS, pieceToIndexes, i).and(~15L);
+			final LongVector xor = x.lanewise(VectorOperators.XOR, y);
+			// High bit per pair will contain whether the pair is 3, low bit is garbled.
+			final LongVector is3 = xor.and(xor.lanewise(VectorOperators.LSHL, 1));
+			// High bit per pair will contain whether both pairs are non-zero, low bit is garbled.
+			final LongVector is0 = x.or(x.lanewise(VectorOperators.LSHL, 1)).and(y2);
+			final LongVector val = xor.lanewise(VectorOperators.XOR, is3.and(is0).and(HIGH));
+			// Sum the 2-bit fields, whose values are the absolute differences of the coordinates.
+			LongVector sum = val.and(PAIRS).add(val.lanewise(VectorOperators.LSHR, 2).and(PAIRS));
+			sum = sum.add(sum.lanewise(VectorOperators.LSHR, 4)).and(NIBBLES);
+			// The bytes sum up to at most 90, so no carries cross them.
+			sum = sum.add(sum.lanewise(VectorOperators.LSHR, 8));
+			sum = sum.add(sum.lanewise(VectorOperators.LSHR, 16));
+			sum = sum.add(sum.lanewise(VectorOperators.LSHR, 32)).and(0xFF);
+			((IntVector) sum.convertShape(VectorOperators.L2I, INTS, 0)).intoArray(distances, i);
+		}
+		for (; i<count; ++i) distances[i] = FifteenBoard.manhattanDistance(pieceToIndexes[i], goalPieceToIndex);
+	}
+
+	@Override public String toString() {
+		return "vector " + LONGS;
+	}
+
+	/** The species must be constants, otherwise the vectors don't get intrinsified and end up allocated. */
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+	/** The ints with as many lanes as {@link #LONGS}. */
+	private static final VectorSpecies<Integer> INTS =
+			VectorSpecies.of(int.class, VectorShape.forBitSize(Math.max(64, LONGS.vectorBitSize() / 2)));
+
+	private static final long HIGH = 0xAAAA_AAAA_AAAA_AAAAL;
+	private static final long PAIRS = 0x3333_3333_3333_3333L;
+	private static final long NIBBLES = 0x0F0F_0F0F_0F0F_0F0FL;
+}